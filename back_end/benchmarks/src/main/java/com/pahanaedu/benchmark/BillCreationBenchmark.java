@@ -0,0 +1,85 @@
+package com.pahanaedu.benchmark;
+
+import com.pahanaedu.BillingSystemApplication;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillItemDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.CustomerRepository;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.service.BillService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BillService.createBillFromDTO end to end (item lookups, pricing, stock decrement, inserts) on the
+ * embedded H2 database the tests use, with the application context started once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillCreationBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private BillService billService;
+    private BillDto billDto;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BillingSystemApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        billService = context.getBean(BillService.class);
+
+        Customer customer = context.getBean(CustomerRepository.class)
+                .save(new Customer("BENCH-0001", "Bench Customer", "12 Bench Road", "0771234567"));
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        LocalDate billDate = LocalDate.of(2024, 6, 15);
+        billDto = new BillDto(customer.getId(), billDate, billDate.plusDays(30));
+        List<BillItemDto> billItems = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            // Enough stock that no iteration runs out
+            Item item = itemRepository.save(
+                    new Item("BENCH-" + i, "Bench Item " + i, new BigDecimal("125.50"), Integer.MAX_VALUE));
+            billItems.add(new BillItemDto(item.getId(), BigDecimal.ONE, item.getUnitPrice()));
+        }
+        billDto.setBillItems(billItems);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Bill createBill() {
+        return billService.createBillFromDTO(billDto);
+    }
+}
@@ -0,0 +1,125 @@
+package com.pahanaedu.benchmark;
+
+import com.pahanaedu.dto.PricingRuleDto;
+import com.pahanaedu.dto.PricingRuleDto.RuleType;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.service.PricingRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of bill totals: the fixed-point PricingRules.apply against the same
+ * bucketed computation done in BigDecimal (as PricingRules did before Money). Bills carry line
+ * totals of quantity x unit price, as BillItemDto computes them. Run with -prof gc for
+ * gc.alloc.rate.norm (bytes allocated per bill); see benchmarks/README.md.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillTotalsBenchmark {
+
+    private static final String[] CATEGORIES = {"Books", "Stationery", "Art", "Music", "Science", "Other"};
+
+    @Param({"5", "50", "500"})
+    public int lines;
+
+    private PricingRules rules;
+    private Bill bill;
+    private BigDecimal unitsConsumed;
+
+    // The same rates for the BigDecimal version
+    private Map<String, Integer> bucketByCategory;
+    private BigDecimal[] discountRates;
+    private BigDecimal[] taxRates;
+
+    @Setup
+    public void setUp() {
+        rules = PricingRules.compile(List.of(
+                new PricingRuleDto(RuleType.TAX, "Books", null, new BigDecimal("0.05"), null, null),
+                new PricingRuleDto(RuleType.TAX, "Stationery", null, new BigDecimal("0.15"), null, null),
+                new PricingRuleDto(RuleType.TAX, "Art", null, new BigDecimal("0.12"), null, null),
+                new PricingRuleDto(RuleType.DISCOUNT, "Music", new BigDecimal("100"), new BigDecimal("0.075"), null, null),
+                new PricingRuleDto(RuleType.DISCOUNT, null, new BigDecimal("100"), new BigDecimal("0.02"), null, null)),
+                new BigDecimal("0.10"));
+        unitsConsumed = new BigDecimal("250");
+
+        bucketByCategory = new HashMap<>(Map.of("Books", 1, "Stationery", 2, "Art", 3, "Music", 4));
+        discountRates = new BigDecimal[]{new BigDecimal("0.02"), new BigDecimal("0.02"), new BigDecimal("0.02"),
+                new BigDecimal("0.02"), new BigDecimal("0.075")};
+        taxRates = new BigDecimal[]{new BigDecimal("0.10"), new BigDecimal("0.05"), new BigDecimal("0.15"),
+                new BigDecimal("0.12"), new BigDecimal("0.10")};
+
+        Random random = new Random(42);
+        bill = new Bill();
+        bill.setBillDate(LocalDate.of(2024, 6, 15));
+        for (int i = 0; i < lines; i++) {
+            Item item = new Item("BENCH-" + i, "Bench Item " + i, BigDecimal.ONE);
+            item.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(400), 2);
+            BigDecimal unitPrice = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            bill.addBillItem(new BillItem(bill, item, quantity, unitPrice));
+        }
+    }
+
+    @Benchmark
+    public Bill fixedPoint() {
+        rules.apply(bill, unitsConsumed);
+        return bill;
+    }
+
+    @Benchmark
+    public Bill bigDecimal() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal[] sums = new BigDecimal[taxRates.length];
+        for (BillItem line : bill.getBillItems()) {
+            BigDecimal lineTotal = line.getTotalPrice();
+            subtotal = subtotal.add(lineTotal);
+            Integer mapped = bucketByCategory.get(line.getItem().getCategory());
+            int bucket = mapped != null ? mapped : 0;
+            sums[bucket] = sums[bucket] == null ? lineTotal : sums[bucket].add(lineTotal);
+        }
+
+        BigDecimal discount = BigDecimal.ZERO;
+        BigDecimal tax = BigDecimal.ZERO;
+        for (int bucket = 0; bucket < sums.length; bucket++) {
+            BigDecimal sum = sums[bucket];
+            if (sum == null) {
+                continue;
+            }
+            BigDecimal bucketDiscount = sum.multiply(discountRates[bucket]).setScale(2, RoundingMode.HALF_UP);
+            discount = discount.add(bucketDiscount);
+            sum = sum.subtract(bucketDiscount);
+            tax = tax.add(sum.multiply(taxRates[bucket]).setScale(2, RoundingMode.HALF_UP));
+        }
+
+        bill.setSubtotal(subtotal);
+        bill.setDiscountAmount(discount);
+        bill.setTaxAmount(tax);
+        bill.setTotalAmount(subtotal.subtract(discount).add(tax));
+        return bill;
+    }
+
+}
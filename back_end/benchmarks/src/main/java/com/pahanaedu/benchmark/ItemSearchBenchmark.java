@@ -0,0 +1,95 @@
+package com.pahanaedu.benchmark;
+
+import com.pahanaedu.BillingSystemApplication;
+import com.pahanaedu.loadtest.DatasetGenerator;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.service.ItemSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item picker search on a 1M-item catalog: the in-memory trigram index (top 10, ranked) against
+ * the SQL it replaces on the embedded H2 database: LIKE '%term%' on name and code with LIMIT 10
+ * (unranked), and ItemRepository.findByNameContainingIgnoreCase, which returns every match.
+ * Item names are DatasetGenerator's ("Pocket Atlas 123"); codes are ITM000001 onwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+
+    @Param({"1000000"})
+    public int items;
+
+    // A common word, two word prefixes, a word and number, a code, and a typo
+    @Param({"atlas", "pocket calc", "atlas 54321", "itm765432", "dictonary"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private ItemSearchIndex itemSearchIndex;
+    private ItemRepository itemRepository;
+    private JdbcTemplate jdbcTemplate;
+    private String pattern;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BillingSystemApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        DatasetGenerator generator = new DatasetGenerator(context.getBean(DataSource.class));
+        generator.setCustomers(1);
+        generator.setItems(items);
+        generator.setLines(0);
+        generator.generate();
+
+        itemSearchIndex = context.getBean(ItemSearchIndex.class);
+        itemSearchIndex.rebuild();
+        itemRepository = context.getBean(ItemRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        pattern = "%" + query.toLowerCase() + "%";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        return itemSearchIndex.search(query, 10);
+    }
+
+    @Benchmark
+    public List<Long> sqlLike() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM items WHERE LOWER(name) LIKE ? OR LOWER(item_code) LIKE ? LIMIT 10",
+                Long.class, pattern, pattern);
+    }
+
+    @Benchmark
+    public int repositoryLike() {
+        return itemRepository.findByNameContainingIgnoreCase(query).size();
+    }
+}
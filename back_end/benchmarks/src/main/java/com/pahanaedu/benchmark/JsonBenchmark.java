@@ -0,0 +1,104 @@
+package com.pahanaedu.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.dto.BillDetailDto;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillItemDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serde of the bill payloads the API reads and writes: BillDto (POST /api/bills), Bill (the
+ * PUT /api/bills/{id} body) and BillDetailDto (every bill response). The mapper starts from the
+ * same builder defaults as Spring MVC's converter; Bill itself is never written, see BillDetailDto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int lines;
+
+    private ObjectMapper mapper;
+    private BillDto billDto;
+    private String billDtoJson;
+    private String billJson;
+    private BillDetailDto billDetail;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDate billDate = LocalDate.of(2024, 6, 15);
+        billDto = new BillDto(1L, billDate, billDate.plusDays(30));
+        List<BillItemDto> dtoLines = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            dtoLines.add(new BillItemDto((long) i + 1, new BigDecimal(i % 5 + 1), new BigDecimal("125.50")));
+        }
+        billDto.setBillItems(dtoLines);
+        billDtoJson = mapper.writeValueAsString(billDto);
+
+        Customer customer = new Customer("ACC-000001", "Bench Customer", "12 Bench Road", "0771234567");
+        customer.setId(1L);
+        Bill bill = new Bill();
+        bill.setId(1L);
+        bill.setBillNumber("BILL-202406-000001");
+        bill.setCustomer(customer);
+        bill.setCustomerId(1L);
+        bill.setBillDate(billDate);
+        bill.setDueDate(billDate.plusDays(30));
+        bill.setStatus(Bill.BillStatus.PENDING);
+        for (int i = 0; i < lines; i++) {
+            Item item = new Item("ITEM-" + i, "Bench Item " + i, new BigDecimal("125.50"));
+            item.setId((long) i + 1);
+            bill.getBillItems().add(new BillItem(bill, item, new BigDecimal(i % 5 + 1), item.getUnitPrice()));
+        }
+        billDetail = BillDetailDto.from(bill);
+        // The PUT body carries the same fields as the response
+        billJson = mapper.writeValueAsString(billDetail);
+    }
+
+    @Benchmark
+    public String writeBillDto() throws Exception {
+        return mapper.writeValueAsString(billDto);
+    }
+
+    @Benchmark
+    public BillDto readBillDto() throws Exception {
+        return mapper.readValue(billDtoJson, BillDto.class);
+    }
+
+    @Benchmark
+    public Bill readBill() throws Exception {
+        return mapper.readValue(billJson, Bill.class);
+    }
+
+    @Benchmark
+    public String writeBillDetail() throws Exception {
+        return mapper.writeValueAsString(billDetail);
+    }
+}
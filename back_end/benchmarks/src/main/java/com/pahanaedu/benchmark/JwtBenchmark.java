@@ -0,0 +1,76 @@
+package com.pahanaedu.benchmark;
+
+import com.pahanaedu.utils.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtils as JwtAuthenticationFilter uses it on every authenticated request: validate the bearer token,
+ * then read its subject. Also signing a token (login) and rejecting one with a bad signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    // HS512 needs a key of at least 64 bytes, as jwt.secret in application.yml is
+    private static final String SECRET = "benchmarkSecretKey0123456789benchmarkSecretKey0123456789abcdefgh";
+
+    private JwtUtils jwtUtils;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        setField(jwtUtils, "jwtSecret", SECRET);
+        setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+
+        token = jwtUtils.generateJwtToken("admin");
+        // Flip a character inside the signature (the last one may only carry padding bits)
+        int at = token.length() - 10;
+        tamperedToken = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String validateAndGetUserName() {
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getUserNameFromJwtToken(token) : null;
+    }
+
+    @Benchmark
+    public boolean rejectTampered() {
+        return jwtUtils.validateJwtToken(tamperedToken);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken("admin");
+    }
+
+    // JwtUtils takes its settings from @Value fields
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,107 @@
+package com.pahanaedu.benchmark;
+
+import com.pahanaedu.dto.PricingRuleDto;
+import com.pahanaedu.dto.PricingRuleDto.RuleType;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.service.PricingRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing one 20-line bill as the number of pricing rules grows, next to the former
+ * hard-coded 10% tax. Rules are a seeded mix of category tax rates with effective-date windows,
+ * every-category tax changes and tiered discounts over 50 categories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingRulesBenchmark {
+
+    private static final int CATEGORIES = 50;
+    private static final int LINES_PER_BILL = 20;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    @Param({"1", "10", "100", "1000"})
+    public int ruleCount;
+
+    private PricingRules rules;
+    private Bill bill;
+    private BigDecimal unitsConsumed;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<PricingRuleDto> ruleSet = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            LocalDate from = FIRST_DAY.plusDays(random.nextInt(6 * 365));
+            LocalDate to = random.nextBoolean() ? from.plusDays(30 + random.nextInt(365)) : null;
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(2000), 4);
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                ruleSet.add(new PricingRuleDto(RuleType.TAX, category(random.nextInt(CATEGORIES)), null, rate, from, to));
+            } else if (kind < 7) {
+                ruleSet.add(new PricingRuleDto(RuleType.TAX, null, null, rate, from, to));
+            } else {
+                String category = random.nextBoolean() ? null : category(random.nextInt(CATEGORIES));
+                BigDecimal minUnits = BigDecimal.valueOf(100L * (1 + random.nextInt(10)));
+                ruleSet.add(new PricingRuleDto(RuleType.DISCOUNT, category, minUnits, rate, from, to));
+            }
+        }
+        rules = PricingRules.compile(ruleSet, new BigDecimal("0.10"));
+
+        bill = new Bill();
+        bill.setBillDate(LocalDate.of(2024, 6, 15));
+        for (int i = 0; i < LINES_PER_BILL; i++) {
+            Item item = new Item("BENCH-" + i, "Bench Item " + i, new BigDecimal("12.50"));
+            item.setCategory(category(random.nextInt(CATEGORIES)));
+            bill.addBillItem(new BillItem(bill, item, BigDecimal.valueOf(1 + random.nextInt(5)), new BigDecimal("12.50")));
+        }
+        unitsConsumed = new BigDecimal("750");
+    }
+
+    @Benchmark
+    public Bill priceBill() {
+        rules.apply(bill, unitsConsumed);
+        return bill;
+    }
+
+    /**
+     * The totals computation this engine replaced
+     */
+    @Benchmark
+    public Bill hardCodedTenPercent() {
+        BigDecimal subtotal = bill.getBillItems().stream()
+                .map(BillItem::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        bill.setSubtotal(subtotal);
+        BigDecimal taxAmount = subtotal.multiply(new BigDecimal("0.10"));
+        bill.setTaxAmount(taxAmount);
+        bill.setTotalAmount(subtotal.add(taxAmount));
+        return bill;
+    }
+
+    private static String category(int index) {
+        return "Category " + index;
+    }
+}
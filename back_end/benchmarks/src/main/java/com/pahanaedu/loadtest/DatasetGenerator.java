@@ -0,0 +1,337 @@
+package com.pahanaedu.loadtest;
+
+import com.pahanaedu.service.DocumentNumberAllocator.DocumentType;
+import com.pahanaedu.utils.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an empty database with synthetic customers, items, bills and bill lines.
+ *
+ * Rows are written with plain JDBC batches in explicit id order, committing every batch, so
+ * millions of lines load in minutes rather than hours through JPA. Data is seeded (the same
+ * scale and seed give the same rows) and skewed the way real billing is: a few customers and
+ * items account for most bills and lines, bills spread over the last two years, and older
+ * bills are mostly paid. Bill totals use the default 10% tax with no discounts.
+ *
+ * Afterwards the id generators and document number sequences continue after the generated
+ * rows, so the application can create more of each. daily_bill_rollup is not touched: rebuild
+ * it with DailyBillRollupService.rebuild().
+ */
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] FIRST_NAMES = {"Nimal", "Kamala", "Sunil", "Ayesha", "Ruwan", "Dilani",
+            "Kasun", "Tharushi", "Mahesh", "Ishara", "Pradeep", "Nadeesha", "Chaminda", "Sachini", "Lahiru", "Anjali"};
+    private static final String[] LAST_NAMES = {"Perera", "Fernando", "Silva", "Jayasinghe", "Bandara",
+            "Wickramasinghe", "Dissanayake", "Gunawardena", "Rathnayake", "Herath", "Kumara", "Senanayake"};
+    private static final String[] STREETS = {"Galle", "Kandy", "Temple", "Station", "Lake", "Hospital",
+            "Church", "School", "Main", "Park"};
+    private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Negombo", "Matara", "Kurunegala",
+            "Jaffna", "Anuradhapura", "Ratnapura", "Badulla"};
+    private static final String[] CATEGORIES = {"Books", "Stationery", "Art Supplies", "Music", "Science",
+            "Children", "Reference", "Exam Guides", "Magazines", "Other"};
+    private static final String[] ADJECTIVES = {"Illustrated", "Complete", "Advanced", "Pocket", "Junior",
+            "Deluxe", "Practical", "Classic", "Modern", "Essential", "Revised", "Student"};
+    private static final String[] NOUNS = {"Atlas", "Dictionary", "Notebook", "Workbook", "Sketchbook",
+            "Calculator", "Encyclopedia", "Grammar", "Reader", "Novel", "Pencil Set", "Exercise Book",
+            "Geometry Box", "Colour Pens", "Past Papers", "Guitar Method"};
+
+    // Rows per JDBC batch; each batch is committed on its own
+    private static final int BATCH_SIZE = 5_000;
+    private static final int HISTORY_DAYS = 730;
+    private static final int PAYMENT_TERM_DAYS = 30;
+    private static final long DEFAULT_TAX_RATE = 100_000; // 10% in millionths, see Money
+    private static final int ITEM_STOCK = 1_000_000_000;
+
+    private final DataSource dataSource;
+
+    private int customers = 100_000;
+    private int items = 10_000;
+    private long lines = 5_000_000;
+    private int linesPerBill = 5;
+    private long seed = 42;
+    private LocalDate today = LocalDate.now();
+
+    public DatasetGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Bills, lines, customers and items written by generate()
+     */
+    public static class Result {
+        private final int customers;
+        private final int items;
+        private final long bills;
+        private final long lines;
+
+        public Result(int customers, int items, long bills, long lines) {
+            this.customers = customers;
+            this.items = items;
+            this.bills = bills;
+            this.lines = lines;
+        }
+
+        public int getCustomers() { return customers; }
+        public int getItems() { return items; }
+        public long getBills() { return bills; }
+        public long getLines() { return lines; }
+    }
+
+    public Result generate() {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                requireEmpty(connection);
+                SplittableRandom random = new SplittableRandom(seed);
+
+                insertCustomers(connection, random);
+                logger.info("Generated {} customers", customers);
+                long[] itemPrices = insertItems(connection, random);
+                logger.info("Generated {} items", items);
+                long bills = insertBills(connection, random, itemPrices);
+                logger.info("Generated {} bills with {} lines", bills, lines);
+
+                continueSequences(connection, bills);
+                connection.commit();
+
+                long seconds = Math.max(1, (System.nanoTime() - started) / 1_000_000_000L);
+                logger.info("Dataset generated in {} s ({} lines/s)", seconds, lines / seconds);
+                return new Result(customers, items, bills, lines);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Dataset generation failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void requireEmpty(Connection connection) throws SQLException {
+        for (String table : new String[]{"customers", "items", "bills", "bill_items"}) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                rows.next();
+                if (rows.getLong(1) > 0) {
+                    throw new IllegalStateException("Table " + table + " is not empty; generate into an empty database");
+                }
+            }
+        }
+    }
+
+    private void insertCustomers(Connection connection, SplittableRandom random) throws SQLException {
+        String sql = "INSERT INTO customers (id, account_number, name, address, telephone, email, units_consumed, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp createdAt = Timestamp.valueOf(today.minusDays(HISTORY_DAYS).atStartOfDay());
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int id = 1; id <= customers; id++) {
+                String first = pick(random, FIRST_NAMES);
+                String last = pick(random, LAST_NAMES);
+                insert.setLong(1, id);
+                insert.setString(2, DocumentType.CUSTOMER.format(id));
+                insert.setString(3, first + " " + last);
+                insert.setString(4, (1 + random.nextInt(500)) + " " + pick(random, STREETS) + " Road, " + pick(random, CITIES));
+                insert.setString(5, String.format("07%08d", random.nextInt(100_000_000)));
+                insert.setString(6, random.nextInt(3) == 0 ? null
+                        : (first + "." + last + id + "@example.com").toLowerCase());
+                insert.setBigDecimal(7, Money.toBigDecimal(random.nextInt(100_000)));
+                insert.setTimestamp(8, createdAt);
+                insert.setTimestamp(9, createdAt);
+                insert.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    flush(connection, insert);
+                }
+            }
+            flush(connection, insert);
+        }
+    }
+
+    /**
+     * Returns the unit price in cents of every item, indexed by id
+     */
+    private long[] insertItems(Connection connection, SplittableRandom random) throws SQLException {
+        String sql = "INSERT INTO items (id, item_code, name, description, unit_price, category, stock_quantity, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp createdAt = Timestamp.valueOf(today.minusDays(HISTORY_DAYS).atStartOfDay());
+        long[] prices = new long[items + 1];
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int id = 1; id <= items; id++) {
+                String category = pick(random, CATEGORIES);
+                // 50.00 to 5000.00, in steps of 0.50
+                prices[id] = (100 + random.nextInt(9_901)) * 50L;
+                insert.setLong(1, id);
+                insert.setString(2, DocumentType.ITEM.format(id));
+                insert.setString(3, pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + id);
+                insert.setString(4, random.nextInt(4) == 0 ? null : category + " item " + id);
+                insert.setBigDecimal(5, Money.toBigDecimal(prices[id]));
+                insert.setString(6, category);
+                insert.setInt(7, ITEM_STOCK);
+                insert.setTimestamp(8, createdAt);
+                insert.setTimestamp(9, createdAt);
+                insert.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    flush(connection, insert);
+                }
+            }
+            flush(connection, insert);
+        }
+        return prices;
+    }
+
+    /**
+     * Inserts bills until the line count is reached; returns the number of bills
+     */
+    private long insertBills(Connection connection, SplittableRandom random, long[] itemPrices) throws SQLException {
+        String billSql = "INSERT INTO bills (id, bill_number, customer_id, bill_date, due_date, subtotal, "
+                + "discount_amount, tax_amount, total_amount, status, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?)";
+        String lineSql = "INSERT INTO bill_items (id, bill_id, item_id, quantity, unit_price, total_price) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement billInsert = connection.prepareStatement(billSql);
+             PreparedStatement lineInsert = connection.prepareStatement(lineSql)) {
+            long billId = 0;
+            long lineId = 0;
+            int pending = 0;
+            long nextProgress = 1_000_000;
+            while (lineId < lines) {
+                billId++;
+                LocalDate billDate = today.minusDays(random.nextInt(HISTORY_DAYS));
+                LocalDate dueDate = billDate.plusDays(PAYMENT_TERM_DAYS);
+
+                int count = (int) Math.min(1 + random.nextInt(2 * linesPerBill - 1), lines - lineId);
+                long subtotal = 0;
+                for (int i = 0; i < count; i++) {
+                    int itemId = skewed(random, items);
+                    int quantity = random.nextInt(4) == 0 ? 1 + random.nextInt(5) : 1;
+                    long lineTotal = Money.applyRate(itemPrices[itemId], quantity * 1_000_000L, RoundingMode.HALF_UP);
+                    subtotal = Money.add(subtotal, lineTotal);
+
+                    lineInsert.setLong(1, ++lineId);
+                    lineInsert.setLong(2, billId);
+                    lineInsert.setLong(3, itemId);
+                    lineInsert.setInt(4, quantity);
+                    lineInsert.setBigDecimal(5, Money.toBigDecimal(itemPrices[itemId]));
+                    lineInsert.setBigDecimal(6, Money.toBigDecimal(lineTotal));
+                    lineInsert.addBatch();
+                }
+                long tax = Money.applyRate(subtotal, DEFAULT_TAX_RATE, RoundingMode.HALF_UP);
+                Timestamp createdAt = Timestamp.valueOf(billDate.atTime(9, 0).plusSeconds(random.nextInt(36_000)));
+
+                billInsert.setLong(1, billId);
+                billInsert.setString(2, DocumentType.BILL.format(billId));
+                billInsert.setLong(3, skewed(random, customers));
+                billInsert.setDate(4, Date.valueOf(billDate));
+                billInsert.setDate(5, Date.valueOf(dueDate));
+                billInsert.setBigDecimal(6, Money.toBigDecimal(subtotal));
+                billInsert.setBigDecimal(7, Money.toBigDecimal(tax));
+                billInsert.setBigDecimal(8, Money.toBigDecimal(Money.add(subtotal, tax)));
+                billInsert.setString(9, status(random, dueDate));
+                billInsert.setTimestamp(10, createdAt);
+                billInsert.setTimestamp(11, createdAt);
+                billInsert.addBatch();
+
+                pending += count;
+                if (pending >= BATCH_SIZE) {
+                    // Bills first: the lines reference them
+                    billInsert.executeBatch();
+                    flush(connection, lineInsert);
+                    pending = 0;
+                    if (lineId >= nextProgress) {
+                        logger.info("Generated {} of {} lines", lineId, lines);
+                        nextProgress += 1_000_000;
+                    }
+                }
+            }
+            billInsert.executeBatch();
+            flush(connection, lineInsert);
+            return billId;
+        }
+    }
+
+    /**
+     * Moves the Hibernate id generators and the document number sequences past the generated rows
+     */
+    private void continueSequences(Connection connection, long bills) throws SQLException {
+        String idSql = "INSERT INTO id_generators (generator_name, next_value) VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE next_value = VALUES(next_value)";
+        try (PreparedStatement upsert = connection.prepareStatement(idSql)) {
+            addRow(upsert, "customers", customers + 1L);
+            addRow(upsert, "items", items + 1L);
+            addRow(upsert, "bills", bills + 1);
+            addRow(upsert, "bill_items", lines + 1);
+            upsert.executeBatch();
+        }
+        String sequenceSql = "INSERT INTO document_sequences (sequence_name, next_value) VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE next_value = VALUES(next_value)";
+        try (PreparedStatement upsert = connection.prepareStatement(sequenceSql)) {
+            addRow(upsert, DocumentType.CUSTOMER.name(), customers + 1L);
+            addRow(upsert, DocumentType.ITEM.name(), items + 1L);
+            addRow(upsert, DocumentType.BILL.name(), bills + 1);
+            upsert.executeBatch();
+        }
+    }
+
+    private static void addRow(PreparedStatement upsert, String name, long nextValue) throws SQLException {
+        upsert.setString(1, name);
+        upsert.setLong(2, nextValue);
+        upsert.addBatch();
+    }
+
+    private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private String status(SplittableRandom random, LocalDate dueDate) {
+        if (!dueDate.isBefore(today)) {
+            return random.nextInt(5) == 0 ? "PAID" : "PENDING";
+        }
+        return random.nextInt(10) == 0 ? "OVERDUE" : "PAID";
+    }
+
+    /**
+     * An id in [1, count], low ids far more likely (the lowest fifth of the ids get close to 60% of the picks)
+     */
+    private static int skewed(SplittableRandom random, int count) {
+        double u = random.nextDouble();
+        return 1 + (int) (count * u * u * u);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Getters and Setters
+    public int getCustomers() { return customers; }
+    public void setCustomers(int customers) { this.customers = customers; }
+
+    public int getItems() { return items; }
+    public void setItems(int items) { this.items = items; }
+
+    public long getLines() { return lines; }
+    public void setLines(long lines) { this.lines = lines; }
+
+    public int getLinesPerBill() { return linesPerBill; }
+    public void setLinesPerBill(int linesPerBill) { this.linesPerBill = linesPerBill; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public LocalDate getToday() { return today; }
+    public void setToday(LocalDate today) { this.today = today; }
+}
@@ -0,0 +1,273 @@
+package com.pahanaedu.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillItemDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Replays a weighted mix of bill, item and customer API calls from concurrent clients against a
+ * running application, and reports throughput and p50/p99 latency per endpoint.
+ *
+ * Each client sends its next request as soon as the previous response is read (a closed loop,
+ * like users at the billing counter). Calls made during the warm-up are not counted. Ids are
+ * picked with the same skew as DatasetGenerator, so hot customers and items stay hot.
+ */
+public class LoadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+
+    // What the item picker is typed with: words, word prefixes, codes and the odd typo
+    private static final String[] SEARCH_TERMS = {"atlas", "dictionary", "pocket", "sketch", "calc",
+            "pocket+dic", "junior+atlas", "itm00001", "note", "dictonary", "workbok", "gr"};
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private int totalWeight;
+
+    private int clients = 8;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private long seed = 7;
+
+    /**
+     * baseUrl e.g. http://localhost:8080; customers, items and bills are the id ranges to pick from
+     */
+    public LoadDriver(String baseUrl, ObjectMapper objectMapper, int customers, int items, long bills) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // The mix of a billing counter: mostly single-record reads, a steady share of new bills, and
+        // the occasional full item or customer list the front end loads for its pickers
+        add("GET /api/bills/{id}", 20, random -> get("/api/bills/" + skewedId(random, bills)));
+        add("GET /api/bills/page", 10, random -> get("/api/bills/page?size=20&cursor=" + random.nextLong(bills)));
+        add("GET /api/bills/customer/{id}/page", 10,
+                random -> get("/api/bills/customer/" + skewedId(random, customers) + "/page?size=20"));
+        add("POST /api/bills", 15, random -> post("/api/bills", newBill(random, customers, items)));
+        add("GET /api/items/{id}", 20, random -> get("/api/items/" + skewedId(random, items)));
+        add("GET /api/items", 2, random -> get("/api/items"));
+        add("GET /api/items/search", 10, random -> get("/api/items/search?q="
+                + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]));
+        add("GET /api/customers/{id}", 20, random -> get("/api/customers/" + skewedId(random, customers)));
+        add("GET /api/customers", 1, random -> get("/api/customers"));
+        add("GET /api/customers/{id}/statement", 2,
+                random -> get("/api/customers/" + skewedId(random, customers) + "/statement"));
+    }
+
+    /**
+     * Requests, errors, throughput and latency of one endpoint over the measured period
+     */
+    public static class EndpointReport {
+        private final String endpoint;
+        private final long requests;
+        private final long errors;
+        private final double throughputPerSecond;
+        private final double p50Ms;
+        private final double p99Ms;
+        private final double maxMs;
+
+        public EndpointReport(String endpoint, long requests, long errors, double throughputPerSecond,
+                              double p50Ms, double p99Ms, double maxMs) {
+            this.endpoint = endpoint;
+            this.requests = requests;
+            this.errors = errors;
+            this.throughputPerSecond = throughputPerSecond;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+        }
+
+        public String getEndpoint() { return endpoint; }
+        public long getRequests() { return requests; }
+        public long getErrors() { return errors; }
+        public double getThroughputPerSecond() { return throughputPerSecond; }
+        public double getP50Ms() { return p50Ms; }
+        public double getP99Ms() { return p99Ms; }
+        public double getMaxMs() { return maxMs; }
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Function<SplittableRandom, HttpRequest> request;
+
+        private Endpoint(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Runs the clients for the warm-up and the measured duration; the last report is the total
+     */
+    public List<EndpointReport> run() throws Exception {
+        long now = System.nanoTime();
+        long measureFrom = now + warmupSeconds * 1_000_000_000L;
+        long end = measureFrom + durationSeconds * 1_000_000_000L;
+        logger.info("Running {} clients against {} for {} s (+{} s warm-up)", clients, baseUrl, durationSeconds, warmupSeconds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<Map<String, LatencySamples>>> results = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            SplittableRandom random = new SplittableRandom(seed + client);
+            results.add(executor.submit(() -> runClient(random, measureFrom, end)));
+        }
+        executor.shutdown();
+
+        Map<String, LatencySamples> merged = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            merged.put(endpoint.name, new LatencySamples());
+        }
+        for (Future<Map<String, LatencySamples>> result : results) {
+            result.get().forEach((name, samples) -> merged.get(name).addAll(samples));
+        }
+
+        List<EndpointReport> reports = new ArrayList<>();
+        LatencySamples all = new LatencySamples();
+        merged.forEach((name, samples) -> {
+            reports.add(report(name, samples));
+            all.addAll(samples);
+        });
+        reports.add(report("TOTAL", all));
+        return reports;
+    }
+
+    private Map<String, LatencySamples> runClient(SplittableRandom random, long measureFrom, long end) {
+        Map<String, LatencySamples> samples = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            samples.put(endpoint.name, new LatencySamples());
+        }
+
+        long started;
+        while ((started = System.nanoTime()) < end) {
+            Endpoint endpoint = pick(random);
+            HttpRequest request = endpoint.request.apply(random);
+            boolean ok;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long elapsed = System.nanoTime() - started;
+
+            if (started >= measureFrom) {
+                if (ok) {
+                    samples.get(endpoint.name).record(elapsed);
+                } else {
+                    samples.get(endpoint.name).recordError();
+                }
+            }
+        }
+        return samples;
+    }
+
+    private EndpointReport report(String name, LatencySamples samples) {
+        return new EndpointReport(name, samples.getCount(), samples.getErrors(),
+                (double) samples.getCount() / durationSeconds,
+                millis(samples.percentile(50)), millis(samples.percentile(99)), millis(samples.percentile(100)));
+    }
+
+    private void add(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+        endpoints.add(new Endpoint(name, weight, request));
+        totalWeight += weight;
+    }
+
+    private Endpoint pick(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            ticket -= endpoint.weight;
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("No endpoint for ticket");
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write request body", e);
+        }
+    }
+
+    /**
+     * A bill of one to nine lines for a skewed customer; the service takes prices from the request
+     */
+    private static BillDto newBill(SplittableRandom random, int customers, int items) {
+        LocalDate today = LocalDate.now();
+        BillDto bill = new BillDto(skewedId(random, customers), today, today.plusDays(30));
+        int lines = 1 + random.nextInt(9);
+        List<BillItemDto> billItems = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            billItems.add(new BillItemDto(skewedId(random, items), BigDecimal.valueOf(1 + random.nextInt(3)),
+                    new BigDecimal("250.00")));
+        }
+        bill.setBillItems(billItems);
+        return bill;
+    }
+
+    // Same skew as DatasetGenerator
+    private static long skewedId(SplittableRandom random, long count) {
+        double u = random.nextDouble();
+        return 1 + (long) (count * u * u * u);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // Getters and Setters
+    public int getClients() { return clients; }
+    public void setClients(int clients) { this.clients = clients; }
+
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public void setWarmupSeconds(int warmupSeconds) { this.warmupSeconds = warmupSeconds; }
+
+    public int getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+}
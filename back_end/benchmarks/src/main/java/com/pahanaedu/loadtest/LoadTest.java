@@ -0,0 +1,83 @@
+package com.pahanaedu.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pahanaedu.BillingSystemApplication;
+import com.pahanaedu.service.DailyBillRollupService;
+import com.pahanaedu.service.ItemSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.util.List;
+
+/**
+ * End-to-end load test: starts the application on an embedded H2 database in MySQL mode (the
+ * test profile), fills it with DatasetGenerator, then drives it over HTTP with LoadDriver and
+ * prints the per-endpoint report, also written as JSON to loadtest.report.
+ *
+ * Settings are Spring properties, so they go on the command line like any other, e.g.
+ * --loadtest.customers=100000 --loadtest.lines=5000000 --loadtest.clients=16, and
+ * --spring.datasource.url=... puts the database on disk for datasets larger than the heap.
+ * See benchmarks/README.md.
+ */
+public class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        // Any free port unless one is given; system properties override application.yml
+        if (System.getProperty("server.port") == null) {
+            System.setProperty("server.port", "0");
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BillingSystemApplication.class)
+                .profiles("test")
+                .properties("logging.level.com.pahanaedu.loadtest=INFO")
+                .run(args);
+        try {
+            Environment environment = context.getEnvironment();
+
+            DatasetGenerator generator = new DatasetGenerator(context.getBean(DataSource.class));
+            generator.setCustomers(environment.getProperty("loadtest.customers", Integer.class, 100_000));
+            generator.setItems(environment.getProperty("loadtest.items", Integer.class, 10_000));
+            generator.setLines(environment.getProperty("loadtest.lines", Long.class, 5_000_000L));
+            generator.setLinesPerBill(environment.getProperty("loadtest.lines-per-bill", Integer.class, 5));
+            generator.setSeed(environment.getProperty("loadtest.seed", Long.class, 42L));
+            DatasetGenerator.Result dataset = generator.generate();
+            context.getBean(DailyBillRollupService.class).rebuild();
+            context.getBean(ItemSearchIndex.class).rebuild();
+
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+            LoadDriver driver = new LoadDriver(baseUrl, objectMapper,
+                    dataset.getCustomers(), dataset.getItems(), dataset.getBills());
+            driver.setClients(environment.getProperty("loadtest.clients", Integer.class, 8));
+            driver.setWarmupSeconds(environment.getProperty("loadtest.warmup-seconds", Integer.class, 10));
+            driver.setDurationSeconds(environment.getProperty("loadtest.duration-seconds", Integer.class, 60));
+            List<LoadDriver.EndpointReport> reports = driver.run();
+
+            System.out.println(format(reports));
+            File report = new File(environment.getProperty("loadtest.report", "target/load-report.json"));
+            objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report, reports);
+            logger.info("Load test report written to {}", report.getAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static String format(List<LoadDriver.EndpointReport> reports) {
+        StringBuilder table = new StringBuilder(String.format("%n%-36s %10s %8s %10s %10s %10s %10s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "Max ms"));
+        for (LoadDriver.EndpointReport report : reports) {
+            table.append(String.format("%-36s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    report.getEndpoint(), report.getRequests(), report.getErrors(), report.getThroughputPerSecond(),
+                    report.getP50Ms(), report.getP99Ms(), report.getMaxMs()));
+        }
+        return table.toString();
+    }
+}
@@ -47,12 +47,15 @@ CREATE TABLE bills (
     bill_date DATE NOT NULL,
     due_date DATE NOT NULL,
     subtotal DECIMAL(12,2) NOT NULL,
+    discount_amount DECIMAL(12,2) DEFAULT 0.00,
     tax_amount DECIMAL(12,2) DEFAULT 0.00,
     total_amount DECIMAL(12,2) NOT NULL,
     status ENUM('PENDING', 'PAID', 'OVERDUE') DEFAULT 'PENDING',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE
+    FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE,
+    INDEX idx_bills_date_status (bill_date, status),
+    INDEX idx_bills_status_due (status, due_date)
 );
 
 -- Bill Items table
@@ -65,4 +68,83 @@ CREATE TABLE bill_items (
     total_price DECIMAL(12,2) NOT NULL,
     FOREIGN KEY (bill_id) REFERENCES bills(id) ON DELETE CASCADE,
     FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Document number sequences (bill numbers, item codes, account numbers).
+-- Each application node reserves a block of numbers by bumping next_value. Rows are created on
+-- first use, starting after the highest number already stored (see DocumentNumberAllocator).
+CREATE TABLE document_sequences (
+    sequence_name VARCHAR(30) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+
+-- Entity id blocks handed out to Hibernate (pooled-lo: next_value is the first id of the next block).
+-- Rows inserted by hand still get AUTO_INCREMENT ids; at startup the application moves each row past
+-- MAX(id) of its table (see IdGeneratorCheck), so restart after loading rows in SQL.
+CREATE TABLE id_generators (
+    generator_name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+INSERT INTO id_generators (generator_name, next_value) VALUES
+('customers', 1),
+('items', 1),
+('bills', 1),
+('bill_items', 1);
+
+-- Idempotency-Key header values seen on POST /api/bills, mapped to the bill each one created and a
+-- SHA-256 of the request body. Rows older than billing.idempotency.ttl are purged every hour.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    bill_id BIGINT NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_idempotency_keys_created (created_at)
+);
+
+-- Bill count and amounts per bill date and status, kept up to date in the same transaction as every
+-- bill change (see DailyBillRollupService). Rebuild after loading bills by hand:
+-- POST /api/reports/rollup/rebuild, or start the application with --rebuild-rollup
+CREATE TABLE daily_bill_rollup (
+    bill_date DATE NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    bill_count BIGINT NOT NULL,
+    subtotal DECIMAL(14,2) NOT NULL,
+    tax_amount DECIMAL(14,2) NOT NULL,
+    total_amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (bill_date, status)
+);
+
+-- Stock taken or returned by bills while billing.stock.ledger.enabled is on, not yet applied to
+-- items.stock_quantity. StockReservationLedger folds rows into items and deletes them in batches;
+-- rows left by a crash are applied on the next flush after restart
+CREATE TABLE stock_journal (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_stock_journal_item (item_id)
+);
+
+-- One row per job that only one node may run at a time. StockReservationLedger holds the
+-- stock-ledger row while billing.stock.ledger.enabled is on and renews it from its flusher; a row
+-- not renewed within billing.stock.ledger.lease-timeout-seconds may be taken by another node
+CREATE TABLE node_leases (
+    lease_name VARCHAR(50) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    renewed_at TIMESTAMP NOT NULL
+);
+
+-- Tax rates per item category and customer-tier discounts (see PricingRuleService). Without an
+-- every-category TAX rule, bills are taxed at billing.pricing.default-tax-rate
+CREATE TABLE pricing_rules (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rule_type VARCHAR(10) NOT NULL,
+    category VARCHAR(50),
+    min_units_consumed DECIMAL(10,2),
+    rate DECIMAL(5,4) NOT NULL,
+    effective_from DATE,
+    effective_to DATE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,57 @@
+package com.pahanaedu.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Moves every id_generators row past the highest id already in its table before Hibernate hands
+ * out any ids. Rows inserted by SQL (sample data, imports, older versions of the application) take
+ * AUTO_INCREMENT ids that the pooled generators know nothing about; without this check the next
+ * block could start on one of them and the insert would fail on the primary key.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorCheck.class);
+
+    // Generator names match their table names (see the @TableGenerator on each entity)
+    static final List<String> TABLES = List.of("customers", "items", "bills", "bill_items");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void run() {
+        for (String table : TABLES) {
+            long floor = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM id_generators WHERE generator_name = ?", Integer.class, table);
+            if (rows == 0) {
+                try {
+                    jdbcTemplate.update("INSERT INTO id_generators (generator_name, next_value) VALUES (?, ?)",
+                            table, floor);
+                    logger.info("Created id generator {} at {}", table, floor);
+                    continue;
+                } catch (DuplicateKeyException e) {
+                    // Another node created the row first; check it like an existing one
+                }
+            }
+            // Only ever moves the row forward, so nodes starting together cannot pull it back
+            int moved = jdbcTemplate.update(
+                    "UPDATE id_generators SET next_value = ? WHERE generator_name = ? AND next_value < ?",
+                    floor, table, floor);
+            if (moved > 0) {
+                logger.warn("Id generator {} was behind the ids in use; moved it to {}", table, floor);
+            }
+        }
+    }
+}
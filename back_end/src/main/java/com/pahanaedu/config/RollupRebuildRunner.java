@@ -0,0 +1,30 @@
+package com.pahanaedu.config;
+
+import com.pahanaedu.service.DailyBillRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds daily_bill_rollup at startup when the application is started with --rebuild-rollup
+ * (e.g. once after the table is first created, or after a bulk load done in SQL).
+ */
+@Component
+public class RollupRebuildRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupRebuildRunner.class);
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("rebuild-rollup")) {
+            logger.info("Rebuilding daily bill rollup (--rebuild-rollup)");
+            dailyBillRollupService.rebuild();
+        }
+    }
+}
@@ -1,16 +1,46 @@
 package com.pahanaedu.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.dto.BillCreationStatusDto;
+import com.pahanaedu.dto.BillDetailDto;
 import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillImportSummaryDto;
+import com.pahanaedu.dto.BillPageDto;
+import com.pahanaedu.dto.BillSummaryDto;
+import com.pahanaedu.dto.OverdueSweepResultDto;
 import com.pahanaedu.entity.Bill;
+import com.pahanaedu.exception.GlobalExceptionHandler.BusinessException;
+import com.pahanaedu.service.BillCreationPipeline;
+import com.pahanaedu.service.BillExportService;
+import com.pahanaedu.service.BillImportService;
 import com.pahanaedu.service.BillService;
+import com.pahanaedu.service.IdempotentBillService;
+import com.pahanaedu.service.InvoicePdfService;
+import com.pahanaedu.service.OverdueBillSweeper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/bills")
@@ -19,24 +49,108 @@ public class BillController {
 
     private static final Logger logger = LoggerFactory.getLogger(BillController.class);
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private BillService billService;
 
+    @Autowired
+    private BillImportService billImportService;
+
+    @Autowired
+    private IdempotentBillService idempotentBillService;
+
+    @Autowired
+    private BillCreationPipeline billCreationPipeline;
+
+    @Autowired
+    private InvoicePdfService invoicePdfService;
+
+    @Autowired
+    private BillExportService billExportService;
+
+    @Autowired
+    private OverdueBillSweeper overdueBillSweeper;
+
+    @Value("${billing.async.wait-timeout-ms:30000}")
+    private long asyncWaitTimeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Every bill in one response. Deprecated: use /page, which the bill list now loads page by page
+     */
+    @Deprecated
     @GetMapping
-    public ResponseEntity<List<Bill>> getAllBills() {
+    public ResponseEntity<List<BillSummaryDto>> getAllBills() {
         try {
-            List<Bill> bills = billService.getAllBills();
-            return ResponseEntity.ok(bills);
+            List<BillSummaryDto> bills = billService.getBillSummaries();
+            return deprecated("/api/bills/page").body(bills);
         } catch (Exception e) {
             logger.error("Error getting bills: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<BillPageDto> getBillPage(@RequestParam(required = false) Long cursor,
+                                                   @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(billService.getBillPage(null, cursor, size));
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting bill page: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBills() {
+        return ResponseEntity.ok().contentType(NDJSON).body(streamSummaries(null));
+    }
+
+    /**
+     * ZIP of every bill dated between from and to (inclusive): pdf/<billNumber>.pdf per bill and bills.csv
+     */
+    @GetMapping("/export.zip")
+    public ResponseEntity<StreamingResponseBody> exportBillsZip(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Exporting bills dated {} to {} as ZIP", from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bills-" + from + "-" + to + ".zip").build().toString())
+                .body(out -> billExportService.exportZip(from, to, out));
+    }
+
+    /**
+     * CSV of every bill dated between from and to (inclusive), streamed as rows are read
+     */
+    @GetMapping("/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportBillsCsv(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Exporting bills dated {} to {} as CSV", from, to);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bills-" + from + "-" + to + ".csv").build().toString())
+                .body(out -> billExportService.exportCsv(from, to, out));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Bill> getBillById(@PathVariable Long id) {
+    public ResponseEntity<BillDetailDto> getBillById(@PathVariable Long id) {
         try {
-            return billService.getBillById(id)
+            return billService.getBillDetail(id)
                     .map(bill -> ResponseEntity.ok().body(bill))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
@@ -45,8 +159,24 @@ public class BillController {
         }
     }
 
+    @GetMapping("/{id}/pdf")
+    public ResponseEntity<StreamingResponseBody> getBillPdf(@PathVariable Long id) {
+        return invoicePdfService.getInvoice(id)
+                .map(invoice -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename("bill-" + invoice.getBillNumber() + ".pdf").build().toString())
+                        .body((StreamingResponseBody) out -> invoicePdfService.writePdf(invoice, out)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
-    public ResponseEntity<Bill> createBill(@Valid @RequestBody BillDto billDto) {
+    public ResponseEntity<BillDetailDto> createBill(@Valid @RequestBody BillDto billDto,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotentBillService.MAX_KEY_LENGTH)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             logger.info("Received bill creation request");
             logger.info("Bill DTO: billNumber={}, customerId={}, billDate={}, dueDate={}",
@@ -61,20 +191,88 @@ public class BillController {
                 }
             }
 
-            Bill savedBill = billService.createBillFromDTO(billDto);
-            return ResponseEntity.ok(savedBill);
+            // With a key, retries of the same request get the bill the first attempt created
+            Bill savedBill = idempotencyKey != null
+                    ? idempotentBillService.createBill(idempotencyKey, billDto)
+                    : billService.createBillFromDTO(billDto);
+            return ResponseEntity.ok(billService.getBillDetail(savedBill.getId()).orElseThrow());
+        } catch (BusinessException e) {
+            // Short stock, bad quantities: let GlobalExceptionHandler turn it into a 4xx with the reason
+            throw e;
         } catch (Exception e) {
             logger.error("Error creating bill: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Async creation: the bill is queued and committed with others in one transaction. Returns 202 with
+     * the ticket's status URL, or with wait=true holds the response until the batch has committed.
+     */
+    @PostMapping("/async")
+    public CompletableFuture<ResponseEntity<BillCreationStatusDto>> createBillAsync(@Valid @RequestBody BillDto billDto,
+                                                                                   @RequestParam(defaultValue = "false") boolean wait) {
+        BillCreationStatusDto queued = billCreationPipeline.submit(billDto);
+        if (!wait) {
+            return CompletableFuture.completedFuture(accepted(queued));
+        }
+        return billCreationPipeline.completion(queued.getTicket())
+                .map(completion -> completion
+                        .thenApply(this::completedStatus)
+                        // Still queued after the wait timeout: fall back to polling
+                        .completeOnTimeout(accepted(queued), asyncWaitTimeoutMs, TimeUnit.MILLISECONDS))
+                .orElseGet(() -> CompletableFuture.completedFuture(accepted(queued)));
+    }
+
+    @GetMapping("/async/{ticket}")
+    public ResponseEntity<BillCreationStatusDto> getAsyncStatus(@PathVariable String ticket) {
+        return billCreationPipeline.getStatus(ticket)
+                .map(status -> ResponseEntity.ok().body(status))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Run the overdue sweep now instead of waiting for its schedule
+     */
+    @PostMapping("/overdue/sweep")
+    public ResponseEntity<OverdueSweepResultDto> sweepOverdueBills() {
+        try {
+            return ResponseEntity.ok(overdueBillSweeper.sweep(LocalDate.now()));
+        } catch (Exception e) {
+            logger.error("Error sweeping overdue bills: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Bulk import: the body is NDJSON (one BillDto per line). The response is NDJSON with one
+     * result per record, written as each chunk commits, followed by a summary line.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public void importBills(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.info("Received bulk bill import request");
+        response.setContentType(NDJSON.toString());
+        OutputStream out = response.getOutputStream();
+
+        BillImportSummaryDto summary = billImportService.importBills(request.getInputStream(), result -> {
+            try {
+                writeLine(out, result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeLine(out, summary);
+        out.flush();
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Bill> updateBill(@PathVariable Long id,
+    public ResponseEntity<BillDetailDto> updateBill(@PathVariable Long id,
                                            @Valid @RequestBody Bill billDetails) {
         try {
             Bill updatedBill = billService.updateBill(id, billDetails);
-            return ResponseEntity.ok(updatedBill);
+            return ResponseEntity.ok(billService.getBillDetail(updatedBill.getId()).orElseThrow());
+        } catch (BusinessException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Bill not found with id: {}", id);
             return ResponseEntity.notFound().build();
@@ -95,21 +293,44 @@ public class BillController {
         }
     }
 
+    /**
+     * Every bill of the customer in one response. Deprecated: use /customer/{customerId}/page
+     */
+    @Deprecated
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Bill>> getBillsByCustomer(@PathVariable Long customerId) {
+    public ResponseEntity<List<BillSummaryDto>> getBillsByCustomer(@PathVariable Long customerId) {
         try {
-            List<Bill> bills = billService.getBillsByCustomer(customerId);
-            return ResponseEntity.ok(bills);
+            List<BillSummaryDto> bills = billService.getBillSummariesByCustomer(customerId);
+            return deprecated("/api/bills/customer/" + customerId + "/page").body(bills);
         } catch (Exception e) {
             logger.error("Error fetching bills for customer {}: {}", customerId, e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping("/customer/{customerId}/page")
+    public ResponseEntity<BillPageDto> getBillPageByCustomer(@PathVariable Long customerId,
+                                                             @RequestParam(required = false) Long cursor,
+                                                             @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(billService.getBillPage(customerId, cursor, size));
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting bill page for customer {}: {}", customerId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/customer/{customerId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamBillsByCustomer(@PathVariable Long customerId) {
+        return ResponseEntity.ok().contentType(NDJSON).body(streamSummaries(customerId));
+    }
+
     @GetMapping("/number/{billNumber}")
-    public ResponseEntity<Bill> getBillByNumber(@PathVariable String billNumber) {
+    public ResponseEntity<BillDetailDto> getBillByNumber(@PathVariable String billNumber) {
         try {
-            return billService.getBillByNumber(billNumber)
+            return billService.getBillDetailByNumber(billNumber)
                     .map(bill -> ResponseEntity.ok().body(bill))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
@@ -117,4 +338,51 @@ public class BillController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<BillCreationStatusDto> accepted(BillCreationStatusDto status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bills/async/" + status.getTicket()))
+                .body(status);
+    }
+
+    private ResponseEntity<BillCreationStatusDto> completedStatus(BillCreationStatusDto status) {
+        return status.getState() == BillCreationStatusDto.State.COMMITTED
+                ? ResponseEntity.created(URI.create("/api/bills/" + status.getBillId())).body(status)
+                : ResponseEntity.badRequest().body(status);
+    }
+
+    /**
+     * Write one JSON bill summary per line straight from the database cursor
+     */
+    private StreamingResponseBody streamSummaries(Long customerId) {
+        return out -> {
+            try {
+                billService.streamBillSummaries(customerId, summary -> {
+                    try {
+                        writeLine(out, summary);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.flush();
+            } catch (UncheckedIOException e) {
+                logger.warn("Bill stream aborted: {}", e.getMessage());
+                throw e.getCause();
+            }
+        };
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
+    /**
+     * A 200 response flagged with the Deprecation header and a Link to the paged replacement
+     */
+    private static ResponseEntity.BodyBuilder deprecated(String successor) {
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "<" + successor + ">; rel=\"successor-version\"");
+    }
+}
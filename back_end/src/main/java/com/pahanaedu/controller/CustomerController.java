@@ -1,12 +1,16 @@
 package com.pahanaedu.controller;
 
+import com.pahanaedu.dto.CustomerStatementDto;
 import com.pahanaedu.entity.Customer;
 import com.pahanaedu.service.CustomerService;
+import com.pahanaedu.service.CustomerStatementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,6 +21,9 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerStatementService customerStatementService;
+
     @GetMapping
     public ResponseEntity<List<Customer>> getAllCustomers() {
         try {
@@ -52,6 +59,29 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Statement for bills dated from..to (defaults: the current month up to today)
+     */
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<CustomerStatementDto> getStatement(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (end.isBefore(start)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return customerStatementService.getStatement(id, start, end)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            System.err.println("Error getting customer statement: " + e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Customer> createCustomer(@Valid @RequestBody Customer customer) {
         try {
@@ -1,6 +1,7 @@
 package com.pahanaedu.controller;
 
 import com.pahanaedu.entity.Item;
+import com.pahanaedu.exception.GlobalExceptionHandler.BusinessException;
 import com.pahanaedu.service.ItemService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +29,20 @@ public class ItemController {
         }
     }
 
+    /**
+     * Item picker search on name and code, best matches first (queries under two characters return nothing)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Item>> searchItems(@RequestParam("q") String query,
+                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(itemService.searchItems(query, limit));
+        } catch (Exception e) {
+            System.err.println("Error searching items: " + e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Item> getItemById(@PathVariable Long id) {
         try {
@@ -57,6 +72,8 @@ public class ItemController {
         try {
             Item updatedItem = itemService.updateItem(id, itemDetails);
             return ResponseEntity.ok(updatedItem);
+        } catch (BusinessException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -0,0 +1,56 @@
+package com.pahanaedu.controller;
+
+import com.pahanaedu.dto.PricingRuleDto;
+import com.pahanaedu.service.PricingRuleService;
+import com.pahanaedu.service.PricingRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pricing-rules")
+@CrossOrigin(origins = "*") // Allow all origins
+public class PricingRuleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingRuleController.class);
+
+    @Autowired
+    private PricingRuleService pricingRuleService;
+
+    @GetMapping
+    public ResponseEntity<List<PricingRuleDto>> getRules() {
+        return ResponseEntity.ok(pricingRuleService.getRules());
+    }
+
+    /**
+     * Add a rule; bills created or updated after the change commits are priced with it
+     */
+    @PostMapping
+    public ResponseEntity<PricingRuleDto> addRule(@Valid @RequestBody PricingRuleDto rule) {
+        PricingRuleDto saved = pricingRuleService.addRule(rule);
+        logger.info("Added {} pricing rule {}", saved.getRuleType(), saved.getId());
+        return ResponseEntity.ok(saved);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRule(@PathVariable Long id) {
+        return pricingRuleService.deleteRule(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Recompile the rules from the pricing_rules table (after editing it outside this instance)
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        PricingRules rules = pricingRuleService.reload();
+        return ResponseEntity.ok(Map.of("rules", rules.getRuleCount()));
+    }
+}
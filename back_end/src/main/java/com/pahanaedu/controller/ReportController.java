@@ -0,0 +1,63 @@
+package com.pahanaedu.controller;
+
+import com.pahanaedu.dto.SalesReportDto;
+import com.pahanaedu.service.DailyBillRollupService;
+import com.pahanaedu.service.ReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*") // Allow all origins
+public class ReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @GetMapping("/sales")
+    public ResponseEntity<SalesReportDto> getSalesReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(reportService.getSalesReport(startDate, endDate));
+        } catch (Exception e) {
+            logger.error("Error generating sales report: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Recompute daily_bill_rollup from the bills table (e.g. after loading bills outside the application)
+     */
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollup() {
+        try {
+            long start = System.currentTimeMillis();
+            int rows = dailyBillRollupService.rebuild();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("rows", rows);
+            response.put("elapsedMs", System.currentTimeMillis() - start);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error rebuilding bill rollup: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
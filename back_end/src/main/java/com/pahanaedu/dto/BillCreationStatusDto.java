@@ -0,0 +1,76 @@
+package com.pahanaedu.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a bill submitted to POST /api/bills/async
+ */
+public class BillCreationStatusDto {
+
+    public enum State {
+        QUEUED, COMMITTED, FAILED
+    }
+
+    private String ticket;
+    private State state;
+    private Long billId;
+    private String billNumber;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public BillCreationStatusDto() {}
+
+    public static BillCreationStatusDto queued(String ticket) {
+        BillCreationStatusDto status = new BillCreationStatusDto();
+        status.ticket = ticket;
+        status.state = State.QUEUED;
+        status.submittedAt = LocalDateTime.now();
+        return status;
+    }
+
+    public BillCreationStatusDto committed(Long billId, String billNumber) {
+        BillCreationStatusDto status = completed(State.COMMITTED);
+        status.billId = billId;
+        status.billNumber = billNumber;
+        return status;
+    }
+
+    public BillCreationStatusDto failed(String error) {
+        BillCreationStatusDto status = completed(State.FAILED);
+        status.error = error;
+        return status;
+    }
+
+    private BillCreationStatusDto completed(State state) {
+        BillCreationStatusDto status = new BillCreationStatusDto();
+        status.ticket = ticket;
+        status.state = state;
+        status.submittedAt = submittedAt;
+        status.completedAt = LocalDateTime.now();
+        return status;
+    }
+
+    // Getters and Setters
+    public String getTicket() { return ticket; }
+    public void setTicket(String ticket) { this.ticket = ticket; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public Long getBillId() { return billId; }
+    public void setBillId(Long billId) { this.billId = billId; }
+
+    public String getBillNumber() { return billNumber; }
+    public void setBillNumber(String billNumber) { this.billNumber = billNumber; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,140 @@
+package com.pahanaedu.dto;
+
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read model for a single bill: header, the customer fields a bill view shows, and the lines.
+ * Built from a bill whose customer, lines and items were fetched together, so mapping runs no queries.
+ */
+public class BillDetailDto {
+
+    private Long id;
+    private String billNumber;
+    private Long customerId;
+    private CustomerRef customer;
+    private LocalDate billDate;
+    private LocalDate dueDate;
+    private BigDecimal subtotal;
+    private BigDecimal discountAmount;
+    private BigDecimal taxAmount;
+    private BigDecimal totalAmount;
+    private Bill.BillStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<BillLineDto> billItems = new ArrayList<>();
+
+    public static class CustomerRef {
+        private Long id;
+        private String accountNumber;
+        private String name;
+        private String address;
+        private String telephone;
+        private String email;
+
+        public CustomerRef() {}
+
+        public CustomerRef(Long id, String accountNumber, String name, String address, String telephone, String email) {
+            this.id = id;
+            this.accountNumber = accountNumber;
+            this.name = name;
+            this.address = address;
+            this.telephone = telephone;
+            this.email = email;
+        }
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public String getAccountNumber() { return accountNumber; }
+        public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getAddress() { return address; }
+        public void setAddress(String address) { this.address = address; }
+
+        public String getTelephone() { return telephone; }
+        public void setTelephone(String telephone) { this.telephone = telephone; }
+
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+    }
+
+    // Constructors
+    public BillDetailDto() {}
+
+    public static BillDetailDto from(Bill bill) {
+        BillDetailDto dto = new BillDetailDto();
+        dto.id = bill.getId();
+        dto.billNumber = bill.getBillNumber();
+        dto.customerId = bill.getCustomerId();
+        Customer customer = bill.getCustomer();
+        if (customer != null) {
+            dto.customer = new CustomerRef(customer.getId(), customer.getAccountNumber(), customer.getName(),
+                    customer.getAddress(), customer.getTelephone(), customer.getEmail());
+        }
+        dto.billDate = bill.getBillDate();
+        dto.dueDate = bill.getDueDate();
+        dto.subtotal = bill.getSubtotal();
+        dto.discountAmount = bill.getDiscountAmount();
+        dto.taxAmount = bill.getTaxAmount();
+        dto.totalAmount = bill.getTotalAmount();
+        dto.status = bill.getStatus();
+        dto.createdAt = bill.getCreatedAt();
+        dto.updatedAt = bill.getUpdatedAt();
+        dto.billItems = bill.getBillItems().stream().map(BillLineDto::from).collect(Collectors.toList());
+        return dto;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getBillNumber() { return billNumber; }
+    public void setBillNumber(String billNumber) { this.billNumber = billNumber; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public CustomerRef getCustomer() { return customer; }
+    public void setCustomer(CustomerRef customer) { this.customer = customer; }
+
+    public LocalDate getBillDate() { return billDate; }
+    public void setBillDate(LocalDate billDate) { this.billDate = billDate; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
+    public BigDecimal getTaxAmount() { return taxAmount; }
+    public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public Bill.BillStatus getStatus() { return status; }
+    public void setStatus(Bill.BillStatus status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public List<BillLineDto> getBillItems() { return billItems; }
+    public void setBillItems(List<BillLineDto> billItems) { this.billItems = billItems; }
+}
@@ -0,0 +1,49 @@
+package com.pahanaedu.dto;
+
+/**
+ * Outcome of one NDJSON record in a bulk bill import
+ */
+public class BillImportResultDto {
+
+    private long lineNumber;
+    private boolean success;
+    private Long billId;
+    private String billNumber;
+    private String error;
+
+    // Constructors
+    public BillImportResultDto() {}
+
+    public static BillImportResultDto success(long lineNumber, Long billId, String billNumber) {
+        BillImportResultDto result = new BillImportResultDto();
+        result.lineNumber = lineNumber;
+        result.success = true;
+        result.billId = billId;
+        result.billNumber = billNumber;
+        return result;
+    }
+
+    public static BillImportResultDto failure(long lineNumber, String error) {
+        BillImportResultDto result = new BillImportResultDto();
+        result.lineNumber = lineNumber;
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+
+    // Getters and Setters
+    public long getLineNumber() { return lineNumber; }
+    public void setLineNumber(long lineNumber) { this.lineNumber = lineNumber; }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public Long getBillId() { return billId; }
+    public void setBillId(Long billId) { this.billId = billId; }
+
+    public String getBillNumber() { return billNumber; }
+    public void setBillNumber(String billNumber) { this.billNumber = billNumber; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,33 @@
+package com.pahanaedu.dto;
+
+/**
+ * Totals for a bulk bill import, written as the last line of the import response
+ */
+public class BillImportSummaryDto {
+
+    private long total;
+    private long succeeded;
+    private long failed;
+
+    // Constructors
+    public BillImportSummaryDto() {}
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getSucceeded() { return succeeded; }
+    public void setSucceeded(long succeeded) { this.succeeded = succeeded; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public void record(BillImportResultDto result) {
+        total++;
+        if (result.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pahanaedu.dto;
+
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Item;
+
+import java.math.BigDecimal;
+
+/**
+ * A bill line with the few item fields a bill view shows.
+ */
+public class BillLineDto {
+
+    private Long id;
+    private Long billId;
+    private Long itemId;
+    private ItemRef item;
+    private BigDecimal quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+
+    public static class ItemRef {
+        private Long id;
+        private String itemCode;
+        private String name;
+
+        public ItemRef() {}
+
+        public ItemRef(Long id, String itemCode, String name) {
+            this.id = id;
+            this.itemCode = itemCode;
+            this.name = name;
+        }
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public String getItemCode() { return itemCode; }
+        public void setItemCode(String itemCode) { this.itemCode = itemCode; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+
+    // Constructors
+    public BillLineDto() {}
+
+    public static BillLineDto from(BillItem billItem) {
+        BillLineDto dto = new BillLineDto();
+        dto.id = billItem.getId();
+        dto.billId = billItem.getBillId();
+        Item item = billItem.getItem();
+        if (item != null) {
+            dto.itemId = item.getId();
+            dto.item = new ItemRef(item.getId(), item.getItemCode(), item.getName());
+        }
+        dto.quantity = billItem.getQuantity();
+        dto.unitPrice = billItem.getUnitPrice();
+        dto.totalPrice = billItem.getTotalPrice();
+        return dto;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBillId() { return billId; }
+    public void setBillId(Long billId) { this.billId = billId; }
+
+    public Long getItemId() { return itemId; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+
+    public ItemRef getItem() { return item; }
+    public void setItem(ItemRef item) { this.item = item; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
+}
@@ -0,0 +1,37 @@
+package com.pahanaedu.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of bills. Pass nextCursor back as the cursor parameter to get the next page.
+ */
+public class BillPageDto {
+
+    private List<BillSummaryDto> bills;
+    private Long nextCursor;
+    private boolean hasMore;
+    private int size;
+
+    // Constructors
+    public BillPageDto() {}
+
+    public BillPageDto(List<BillSummaryDto> bills, Long nextCursor, boolean hasMore, int size) {
+        this.bills = bills;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.size = size;
+    }
+
+    // Getters and Setters
+    public List<BillSummaryDto> getBills() { return bills; }
+    public void setBills(List<BillSummaryDto> bills) { this.bills = bills; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
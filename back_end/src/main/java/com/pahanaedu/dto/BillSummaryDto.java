@@ -0,0 +1,72 @@
+package com.pahanaedu.dto;
+
+import com.pahanaedu.entity.Bill;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat bill row with the customer's name but without line items or other customer details.
+ * Built straight from a JPQL constructor expression so no entity is loaded or tracked.
+ */
+public class BillSummaryDto {
+
+    private Long id;
+    private String billNumber;
+    private Long customerId;
+    private String customerName;
+    private LocalDate billDate;
+    private LocalDate dueDate;
+    private BigDecimal subtotal;
+    private BigDecimal taxAmount;
+    private BigDecimal totalAmount;
+    private Bill.BillStatus status;
+
+    // Constructors
+    public BillSummaryDto() {}
+
+    public BillSummaryDto(Long id, String billNumber, Long customerId, String customerName, LocalDate billDate,
+                          LocalDate dueDate, BigDecimal subtotal, BigDecimal taxAmount, BigDecimal totalAmount,
+                          Bill.BillStatus status) {
+        this.id = id;
+        this.billNumber = billNumber;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.billDate = billDate;
+        this.dueDate = dueDate;
+        this.subtotal = subtotal;
+        this.taxAmount = taxAmount;
+        this.totalAmount = totalAmount;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getBillNumber() { return billNumber; }
+    public void setBillNumber(String billNumber) { this.billNumber = billNumber; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public LocalDate getBillDate() { return billDate; }
+    public void setBillDate(LocalDate billDate) { this.billDate = billDate; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+
+    public BigDecimal getTaxAmount() { return taxAmount; }
+    public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public Bill.BillStatus getStatus() { return status; }
+    public void setStatus(Bill.BillStatus status) { this.status = status; }
+}
@@ -0,0 +1,103 @@
+package com.pahanaedu.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A customer's statement for a period. Every total is aggregated by the database;
+ * outstanding amounts are as of the period's last day and aged by days past the due date.
+ */
+public class CustomerStatementDto {
+
+    private Long customerId;
+    private String accountNumber;
+    private String customerName;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal openingBalance;
+    private long billCount;
+    private BigDecimal billedTotal;
+    private BigDecimal paidTotal;
+    private BigDecimal outstandingTotal;
+    private Aging aging;
+    private List<BillSummaryDto> bills = new ArrayList<>();
+
+    /**
+     * Unpaid amounts by days past due (not yet due counts as current)
+     */
+    public static class Aging {
+        private BigDecimal current;
+        private BigDecimal days1To30;
+        private BigDecimal days31To60;
+        private BigDecimal days61To90;
+        private BigDecimal over90;
+
+        public Aging() {}
+
+        public Aging(BigDecimal current, BigDecimal days1To30, BigDecimal days31To60,
+                     BigDecimal days61To90, BigDecimal over90) {
+            this.current = current;
+            this.days1To30 = days1To30;
+            this.days31To60 = days31To60;
+            this.days61To90 = days61To90;
+            this.over90 = over90;
+        }
+
+        public BigDecimal getCurrent() { return current; }
+        public void setCurrent(BigDecimal current) { this.current = current; }
+
+        public BigDecimal getDays1To30() { return days1To30; }
+        public void setDays1To30(BigDecimal days1To30) { this.days1To30 = days1To30; }
+
+        public BigDecimal getDays31To60() { return days31To60; }
+        public void setDays31To60(BigDecimal days31To60) { this.days31To60 = days31To60; }
+
+        public BigDecimal getDays61To90() { return days61To90; }
+        public void setDays61To90(BigDecimal days61To90) { this.days61To90 = days61To90; }
+
+        public BigDecimal getOver90() { return over90; }
+        public void setOver90(BigDecimal over90) { this.over90 = over90; }
+    }
+
+    // Constructors
+    public CustomerStatementDto() {}
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public BigDecimal getOpeningBalance() { return openingBalance; }
+    public void setOpeningBalance(BigDecimal openingBalance) { this.openingBalance = openingBalance; }
+
+    public long getBillCount() { return billCount; }
+    public void setBillCount(long billCount) { this.billCount = billCount; }
+
+    public BigDecimal getBilledTotal() { return billedTotal; }
+    public void setBilledTotal(BigDecimal billedTotal) { this.billedTotal = billedTotal; }
+
+    public BigDecimal getPaidTotal() { return paidTotal; }
+    public void setPaidTotal(BigDecimal paidTotal) { this.paidTotal = paidTotal; }
+
+    public BigDecimal getOutstandingTotal() { return outstandingTotal; }
+    public void setOutstandingTotal(BigDecimal outstandingTotal) { this.outstandingTotal = outstandingTotal; }
+
+    public Aging getAging() { return aging; }
+    public void setAging(Aging aging) { this.aging = aging; }
+
+    public List<BillSummaryDto> getBills() { return bills; }
+    public void setBills(List<BillSummaryDto> bills) { this.bills = bills; }
+}
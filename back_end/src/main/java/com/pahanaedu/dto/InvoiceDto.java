@@ -0,0 +1,158 @@
+package com.pahanaedu.dto;
+
+import com.pahanaedu.entity.Bill;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Everything printed on a bill's PDF, detached from the persistence context so rendering
+ * can run after the transaction (e.g. while streaming the response)
+ */
+public class InvoiceDto {
+
+    private Long billId;
+    private String billNumber;
+    private LocalDate billDate;
+    private LocalDate dueDate;
+    private Bill.BillStatus status;
+    private String customerName;
+    private String accountNumber;
+    private String customerAddress;
+    private String customerTelephone;
+    private BigDecimal subtotal;
+    private BigDecimal taxAmount;
+    private BigDecimal totalAmount;
+    private List<InvoiceLineDto> lines = new ArrayList<>();
+
+    // Constructors
+    public InvoiceDto() {}
+
+    public static InvoiceDto from(Bill bill) {
+        InvoiceDto invoice = new InvoiceDto();
+        invoice.billId = bill.getId();
+        invoice.billNumber = bill.getBillNumber();
+        invoice.billDate = bill.getBillDate();
+        invoice.dueDate = bill.getDueDate();
+        invoice.status = bill.getStatus();
+        if (bill.getCustomer() != null) {
+            invoice.customerName = bill.getCustomer().getName();
+            invoice.accountNumber = bill.getCustomer().getAccountNumber();
+            invoice.customerAddress = bill.getCustomer().getAddress();
+            invoice.customerTelephone = bill.getCustomer().getTelephone();
+        }
+        invoice.subtotal = bill.getSubtotal();
+        invoice.taxAmount = bill.getTaxAmount();
+        invoice.totalAmount = bill.getTotalAmount();
+        bill.getBillItems().forEach(line -> invoice.lines.add(new InvoiceLineDto(
+                line.getItem() != null ? line.getItem().getItemCode() : "",
+                line.getItem() != null ? line.getItem().getName() : "",
+                line.getQuantity(), line.getUnitPrice(), line.getTotalPrice())));
+        return invoice;
+    }
+
+    /**
+     * Values for the template's {placeholders}
+     */
+    public Map<String, String> toFields() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("billNumber", billNumber);
+        fields.put("billDate", billDate != null ? billDate.toString() : "");
+        fields.put("dueDate", dueDate != null ? dueDate.toString() : "");
+        fields.put("status", status != null ? status.name() : "");
+        fields.put("customerName", customerName);
+        fields.put("accountNumber", accountNumber);
+        fields.put("customerAddress", customerAddress);
+        fields.put("customerTelephone", customerTelephone);
+        fields.put("subtotal", formatAmount(subtotal));
+        fields.put("taxAmount", formatAmount(taxAmount));
+        fields.put("totalAmount", formatAmount(totalAmount));
+        return fields;
+    }
+
+    static String formatAmount(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "";
+    }
+
+    /**
+     * Hash of every printed value, so it changes whenever the PDF would; part of the disk cache key.
+     * bills.updated_at is not enough: it has whole-second precision, so two edits within a second
+     * would share a version.
+     */
+    public String getVersion() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        update(digest, toFields());
+        lines.forEach(line -> update(digest, line.toFields()));
+        // 64 bits keep the file names short; a clash needs two versions of the same bill
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    private static void update(MessageDigest digest, Map<String, String> fields) {
+        new TreeMap<>(fields).forEach((name, value) -> {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        });
+        digest.update((byte) 1);
+    }
+
+    public boolean isPaid() {
+        return status == Bill.BillStatus.PAID;
+    }
+
+    // Getters and Setters
+    public Long getBillId() { return billId; }
+    public void setBillId(Long billId) { this.billId = billId; }
+
+    public String getBillNumber() { return billNumber; }
+    public void setBillNumber(String billNumber) { this.billNumber = billNumber; }
+
+    public LocalDate getBillDate() { return billDate; }
+    public void setBillDate(LocalDate billDate) { this.billDate = billDate; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public Bill.BillStatus getStatus() { return status; }
+    public void setStatus(Bill.BillStatus status) { this.status = status; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public String getCustomerAddress() { return customerAddress; }
+    public void setCustomerAddress(String customerAddress) { this.customerAddress = customerAddress; }
+
+    public String getCustomerTelephone() { return customerTelephone; }
+    public void setCustomerTelephone(String customerTelephone) { this.customerTelephone = customerTelephone; }
+
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+
+    public BigDecimal getTaxAmount() { return taxAmount; }
+    public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public List<InvoiceLineDto> getLines() { return lines; }
+    public void setLines(List<InvoiceLineDto> lines) { this.lines = lines; }
+}
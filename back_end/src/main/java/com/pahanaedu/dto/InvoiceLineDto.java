@@ -0,0 +1,57 @@
+package com.pahanaedu.dto;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One line of an invoice as printed on the PDF
+ */
+public class InvoiceLineDto {
+
+    private String itemCode;
+    private String itemName;
+    private BigDecimal quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+
+    // Constructors
+    public InvoiceLineDto() {}
+
+    public InvoiceLineDto(String itemCode, String itemName, BigDecimal quantity, BigDecimal unitPrice, BigDecimal totalPrice) {
+        this.itemCode = itemCode;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = totalPrice;
+    }
+
+    /**
+     * Values for the template's {placeholders}
+     */
+    public Map<String, String> toFields() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("itemCode", itemCode);
+        fields.put("itemName", itemName);
+        fields.put("quantity", quantity != null ? quantity.stripTrailingZeros().toPlainString() : "");
+        fields.put("unitPrice", InvoiceDto.formatAmount(unitPrice));
+        fields.put("totalPrice", InvoiceDto.formatAmount(totalPrice));
+        return fields;
+    }
+
+    // Getters and Setters
+    public String getItemCode() { return itemCode; }
+    public void setItemCode(String itemCode) { this.itemCode = itemCode; }
+
+    public String getItemName() { return itemName; }
+    public void setItemName(String itemName) { this.itemName = itemName; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
+}
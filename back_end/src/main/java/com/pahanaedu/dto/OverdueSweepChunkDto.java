@@ -0,0 +1,36 @@
+package com.pahanaedu.dto;
+
+/**
+ * One chunk of an overdue sweep: the bill id range it covered, how many bills it marked and how long
+ * its transaction took
+ */
+public class OverdueSweepChunkDto {
+
+    private long firstId;
+    private long lastId;
+    private int billsUpdated;
+    private long elapsedMs;
+
+    // Constructors
+    public OverdueSweepChunkDto() {}
+
+    public OverdueSweepChunkDto(long firstId, long lastId, int billsUpdated, long elapsedMs) {
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.billsUpdated = billsUpdated;
+        this.elapsedMs = elapsedMs;
+    }
+
+    // Getters and Setters
+    public long getFirstId() { return firstId; }
+    public void setFirstId(long firstId) { this.firstId = firstId; }
+
+    public long getLastId() { return lastId; }
+    public void setLastId(long lastId) { this.lastId = lastId; }
+
+    public int getBillsUpdated() { return billsUpdated; }
+    public void setBillsUpdated(int billsUpdated) { this.billsUpdated = billsUpdated; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+}
@@ -0,0 +1,42 @@
+package com.pahanaedu.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one run of the overdue sweeper
+ */
+public class OverdueSweepResultDto {
+
+    private long billsUpdated;
+    private int chunks;
+    private long longestChunkMs;
+    private long elapsedMs;
+    private List<OverdueSweepChunkDto> chunkDetails = new ArrayList<>();
+
+    // Constructors
+    public OverdueSweepResultDto() {}
+
+    public void recordChunk(long firstId, long lastId, int updated, long chunkMs) {
+        billsUpdated += updated;
+        chunks++;
+        longestChunkMs = Math.max(longestChunkMs, chunkMs);
+        chunkDetails.add(new OverdueSweepChunkDto(firstId, lastId, updated, chunkMs));
+    }
+
+    // Getters and Setters
+    public long getBillsUpdated() { return billsUpdated; }
+    public void setBillsUpdated(long billsUpdated) { this.billsUpdated = billsUpdated; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public long getLongestChunkMs() { return longestChunkMs; }
+    public void setLongestChunkMs(long longestChunkMs) { this.longestChunkMs = longestChunkMs; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public List<OverdueSweepChunkDto> getChunkDetails() { return chunkDetails; }
+    public void setChunkDetails(List<OverdueSweepChunkDto> chunkDetails) { this.chunkDetails = chunkDetails; }
+}
@@ -0,0 +1,74 @@
+package com.pahanaedu.dto;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A row of pricing_rules. TAX rules set the tax rate for an item category (or every category when
+ * category is empty); DISCOUNT rules take a share off line totals for customers whose units consumed
+ * reach minUnitsConsumed. Either kind only applies to bills dated between effectiveFrom and
+ * effectiveTo (inclusive, open-ended when empty).
+ */
+public class PricingRuleDto {
+
+    public enum RuleType {
+        TAX, DISCOUNT
+    }
+
+    private Long id;
+
+    @NotNull(message = "Rule type is required")
+    private RuleType ruleType;
+
+    @Size(max = 50, message = "Category must not exceed 50 characters")
+    private String category;
+
+    @DecimalMin(value = "0.0", message = "Minimum units consumed cannot be negative")
+    private BigDecimal minUnitsConsumed;
+
+    @NotNull(message = "Rate is required")
+    @DecimalMin(value = "0.0", message = "Rate cannot be negative")
+    @DecimalMax(value = "1.0", message = "Rate cannot exceed 1")
+    @Digits(integer = 1, fraction = 4, message = "Invalid rate format")
+    private BigDecimal rate;
+
+    private LocalDate effectiveFrom;
+
+    private LocalDate effectiveTo;
+
+    // Constructors
+    public PricingRuleDto() {}
+
+    public PricingRuleDto(RuleType ruleType, String category, BigDecimal minUnitsConsumed, BigDecimal rate,
+                          LocalDate effectiveFrom, LocalDate effectiveTo) {
+        this.ruleType = ruleType;
+        this.category = category;
+        this.minUnitsConsumed = minUnitsConsumed;
+        this.rate = rate;
+        this.effectiveFrom = effectiveFrom;
+        this.effectiveTo = effectiveTo;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public RuleType getRuleType() { return ruleType; }
+    public void setRuleType(RuleType ruleType) { this.ruleType = ruleType; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public BigDecimal getMinUnitsConsumed() { return minUnitsConsumed; }
+    public void setMinUnitsConsumed(BigDecimal minUnitsConsumed) { this.minUnitsConsumed = minUnitsConsumed; }
+
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
+
+    public LocalDate getEffectiveFrom() { return effectiveFrom; }
+    public void setEffectiveFrom(LocalDate effectiveFrom) { this.effectiveFrom = effectiveFrom; }
+
+    public LocalDate getEffectiveTo() { return effectiveTo; }
+    public void setEffectiveTo(LocalDate effectiveTo) { this.effectiveTo = effectiveTo; }
+}
@@ -0,0 +1,80 @@
+package com.pahanaedu.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sales report for a date range. Only aggregates are returned, never the bills themselves.
+ */
+public class SalesReportDto {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    private long totalBills;
+    private BigDecimal totalSales = BigDecimal.ZERO;
+    private BigDecimal subtotal = BigDecimal.ZERO;
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+
+    private long paidBills;
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+
+    private long pendingBills;
+    private BigDecimal pendingAmount = BigDecimal.ZERO;
+
+    private long overdueBills;
+    private BigDecimal overdueAmount = BigDecimal.ZERO;
+
+    // Per day and status breakdown, ordered by date
+    private List<SalesTotalsDto> daily = new ArrayList<>();
+
+    // Constructors
+    public SalesReportDto() {}
+
+    public SalesReportDto(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters and Setters
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public long getTotalBills() { return totalBills; }
+    public void setTotalBills(long totalBills) { this.totalBills = totalBills; }
+
+    public BigDecimal getTotalSales() { return totalSales; }
+    public void setTotalSales(BigDecimal totalSales) { this.totalSales = totalSales; }
+
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+
+    public BigDecimal getTaxAmount() { return taxAmount; }
+    public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
+
+    public long getPaidBills() { return paidBills; }
+    public void setPaidBills(long paidBills) { this.paidBills = paidBills; }
+
+    public BigDecimal getPaidAmount() { return paidAmount; }
+    public void setPaidAmount(BigDecimal paidAmount) { this.paidAmount = paidAmount; }
+
+    public long getPendingBills() { return pendingBills; }
+    public void setPendingBills(long pendingBills) { this.pendingBills = pendingBills; }
+
+    public BigDecimal getPendingAmount() { return pendingAmount; }
+    public void setPendingAmount(BigDecimal pendingAmount) { this.pendingAmount = pendingAmount; }
+
+    public long getOverdueBills() { return overdueBills; }
+    public void setOverdueBills(long overdueBills) { this.overdueBills = overdueBills; }
+
+    public BigDecimal getOverdueAmount() { return overdueAmount; }
+    public void setOverdueAmount(BigDecimal overdueAmount) { this.overdueAmount = overdueAmount; }
+
+    public List<SalesTotalsDto> getDaily() { return daily; }
+    public void setDaily(List<SalesTotalsDto> daily) { this.daily = daily; }
+}
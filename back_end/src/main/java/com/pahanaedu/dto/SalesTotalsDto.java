@@ -0,0 +1,56 @@
+package com.pahanaedu.dto;
+
+import com.pahanaedu.entity.Bill;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One aggregated row of the sales report, produced directly by the database.
+ * billDate is null for rows grouped by status only.
+ */
+public class SalesTotalsDto {
+
+    private LocalDate billDate;
+    private Bill.BillStatus status;
+    private long billCount;
+    private BigDecimal subtotal;
+    private BigDecimal taxAmount;
+    private BigDecimal totalAmount;
+
+    // Constructors (used by JPQL constructor expressions)
+    public SalesTotalsDto() {}
+
+    public SalesTotalsDto(Bill.BillStatus status, Long billCount,
+                          BigDecimal subtotal, BigDecimal taxAmount, BigDecimal totalAmount) {
+        this(null, status, billCount, subtotal, taxAmount, totalAmount);
+    }
+
+    public SalesTotalsDto(LocalDate billDate, Bill.BillStatus status, Long billCount,
+                          BigDecimal subtotal, BigDecimal taxAmount, BigDecimal totalAmount) {
+        this.billDate = billDate;
+        this.status = status;
+        this.billCount = billCount != null ? billCount : 0L;
+        this.subtotal = subtotal != null ? subtotal : BigDecimal.ZERO;
+        this.taxAmount = taxAmount != null ? taxAmount : BigDecimal.ZERO;
+        this.totalAmount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+    }
+
+    // Getters and Setters
+    public LocalDate getBillDate() { return billDate; }
+    public void setBillDate(LocalDate billDate) { this.billDate = billDate; }
+
+    public Bill.BillStatus getStatus() { return status; }
+    public void setStatus(Bill.BillStatus status) { this.status = status; }
+
+    public long getBillCount() { return billCount; }
+    public void setBillCount(long billCount) { this.billCount = billCount; }
+
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+
+    public BigDecimal getTaxAmount() { return taxAmount; }
+    public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+}
@@ -126,8 +126,11 @@ import java.util.List;
 @Entity
 @Table(name = "bills")
 public class Bill {
+    // Pooled table-generated ids (not IDENTITY) so Hibernate can batch the inserts of a bill and its lines
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bill_id")
+    @TableGenerator(name = "bill_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "bills", allocationSize = 50)
     private Long id;
 
     @Column(name = "bill_number", unique = true, nullable = false)
@@ -153,6 +156,10 @@ public class Bill {
     @DecimalMin(value = "0.0", message = "Subtotal cannot be negative")
     private BigDecimal subtotal;
 
+    @Column(name = "discount_amount")
+    @DecimalMin(value = "0.0", message = "Discount amount cannot be negative")
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
     @Column(name = "tax_amount")
     @DecimalMin(value = "0.0", message = "Tax amount cannot be negative")
     private BigDecimal taxAmount = BigDecimal.ZERO;
@@ -165,6 +172,7 @@ public class Bill {
     private BillStatus status = BillStatus.PENDING;
 
     @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id")
     private List<BillItem> billItems = new ArrayList<>(); // Initialize the list
 
     @Column(name = "created_at")
@@ -236,6 +244,9 @@ public class Bill {
     public BigDecimal getSubtotal() { return subtotal; }
     public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
 
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
     public BigDecimal getTaxAmount() { return taxAmount; }
     public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
 
@@ -9,7 +9,9 @@ import java.math.BigDecimal;
 @Table(name = "bill_items")
 public class BillItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bill_item_id")
+    @TableGenerator(name = "bill_item_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "bill_items", allocationSize = 50)
     private Long id;
 
     // Use @JsonProperty to handle the JSON mapping properly
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "item_id")
+    @TableGenerator(name = "item_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "items", allocationSize = 50)
     private Long id;
 
     @Column(name = "item_code", unique = true, nullable = false)
@@ -28,7 +30,9 @@ public class Item {
 
     private String category;
 
-    @Column(name = "stock_quantity")
+    // Written on insert only; later changes are relative SQL updates (ItemService, StockService and
+    // the stock ledger flush) so that concurrent changes to the same row are never overwritten
+    @Column(name = "stock_quantity", updatable = false)
     @Min(value = 0, message = "Stock quantity cannot be negative")
     private Integer stockQuantity = 0;
 
@@ -58,6 +62,11 @@ public class Item {
         this.unitPrice = unitPrice;
     }
 
+    public Item(String itemCode, String name, BigDecimal unitPrice, Integer stockQuantity) {
+        this(itemCode, name, unitPrice);
+        this.stockQuantity = stockQuantity;
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -81,7 +90,10 @@ public class Item {
     public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
 
 
@@ -1,20 +1,134 @@
 package com.pahanaedu.repository;
 
+import com.pahanaedu.dto.BillSummaryDto;
 import com.pahanaedu.entity.Bill;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
     Optional<Bill> findByBillNumber(String billNumber);
+
+    // SELECT ... FOR UPDATE: the row stays locked until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bill b WHERE b.id = :id")
+    Optional<Bill> findForUpdateById(@Param("id") Long id);
+
+    // Bill, customer, lines and their items in one query, for rendering the invoice
+    @Query("SELECT b FROM Bill b LEFT JOIN FETCH b.customer LEFT JOIN FETCH b.billItems bi " +
+           "LEFT JOIN FETCH bi.item WHERE b.id = :id")
+    Optional<Bill> findForInvoiceById(@Param("id") Long id);
+
+    // Bill detail view: the bill, its customer, lines and their items in one query
+    @EntityGraph(attributePaths = {"customer", "billItems", "billItems.item"})
+    Optional<Bill> findWithLinesById(Long id);
+
+    @EntityGraph(attributePaths = {"customer", "billItems", "billItems.item"})
+    Optional<Bill> findWithLinesByBillNumber(String billNumber);
+
     List<Bill> findByCustomerId(Long customerId);
     List<Bill> findByBillDateBetween(LocalDate startDate, LocalDate endDate);
 
     @Query("SELECT b FROM Bill b WHERE b.status = ?1")
     List<Bill> findByStatus(String status);
-}
\ No newline at end of file
+
+    String SUMMARY_SELECT = "SELECT new com.pahanaedu.dto.BillSummaryDto(b.id, b.billNumber, b.customerId, c.name, " +
+            "b.billDate, b.dueDate, b.subtotal, b.taxAmount, b.totalAmount, b.status) FROM Bill b LEFT JOIN b.customer c ";
+
+    /**
+     * Summaries of all bills in one query (customer name joined in)
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY b.id")
+    List<BillSummaryDto> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE b.customerId = :customerId ORDER BY b.id")
+    List<BillSummaryDto> findSummariesByCustomerId(@Param("customerId") Long customerId);
+
+    @Query(SUMMARY_SELECT + "WHERE b.customerId = :customerId AND b.billDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY b.billDate, b.id")
+    List<BillSummaryDto> findSummariesByCustomerIdAndBillDateBetween(@Param("customerId") Long customerId,
+                                                                     @Param("startDate") LocalDate startDate,
+                                                                     @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT b.customerId FROM Bill b WHERE b.id = :id")
+    Optional<Long> findCustomerIdById(@Param("id") Long id);
+
+    /**
+     * Keyset page of bill summaries after the given id (pass a page size one larger than needed to detect more rows)
+     */
+    @Query(SUMMARY_SELECT + "WHERE b.id > :afterId ORDER BY b.id")
+    List<BillSummaryDto> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Keyset page of a customer's bill summaries after the given id
+     */
+    @Query(SUMMARY_SELECT + "WHERE b.customerId = :customerId AND b.id > :afterId ORDER BY b.id")
+    List<BillSummaryDto> findSummariesByCustomerIdAfter(@Param("customerId") Long customerId,
+                                                        @Param("afterId") long afterId,
+                                                        Pageable pageable);
+
+    /**
+     * All bill summaries read through a JDBC cursor; must be consumed inside a transaction and closed
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "ORDER BY b.id")
+    Stream<BillSummaryDto> streamSummaries();
+
+    /**
+     * A customer's bill summaries read through a JDBC cursor; must be consumed inside a transaction and closed
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "WHERE b.customerId = :customerId ORDER BY b.id")
+    Stream<BillSummaryDto> streamSummariesByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Ids of the bills dated in the range (findByBillDateBetween through a JDBC cursor);
+     * must be consumed inside a transaction and closed
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id FROM Bill b WHERE b.billDate BETWEEN :startDate AND :endDate ORDER BY b.id")
+    Stream<Long> streamIdsByBillDateBetween(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Bills dated in the range with their customer (findByBillDateBetween through a JDBC cursor);
+     * must be consumed inside a transaction and closed
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Bill b LEFT JOIN FETCH b.customer " +
+           "WHERE b.billDate BETWEEN :startDate AND :endDate ORDER BY b.id")
+    Stream<Bill> streamByBillDateBetween(@Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+
+    // findForInvoiceById for a group of bills, ordered by id
+    @Query("SELECT DISTINCT b FROM Bill b LEFT JOIN FETCH b.customer LEFT JOIN FETCH b.billItems bi " +
+           "LEFT JOIN FETCH bi.item WHERE b.id IN :ids ORDER BY b.id")
+    List<Bill> findForInvoiceByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -3,8 +3,11 @@ package com.pahanaedu.repository;
 import com.pahanaedu.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,10 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     @Query("SELECT c FROM Customer c WHERE c.name LIKE %?1% OR c.accountNumber LIKE %?1%")
     List<Customer> searchCustomers(String searchTerm);
-}
\ No newline at end of file
+
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.unitsConsumed FROM Customer c WHERE c.id = :id")
+    Optional<BigDecimal> findUnitsConsumedById(@Param("id") Long id);
+}
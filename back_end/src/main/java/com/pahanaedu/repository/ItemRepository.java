@@ -2,6 +2,9 @@ package com.pahanaedu.repository;
 
 import com.pahanaedu.entity.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,17 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findByItemCode(String itemCode);
     List<Item> findByCategory(String category);
     List<Item> findByNameContainingIgnoreCase(String name);
+
+    /**
+     * Add delta (negative to remove) to the item's stock unless that would leave less than its
+     * unflushed stock_journal reservations; returns the number of rows updated
+     */
+    @Modifying
+    @Query(value = "UPDATE items SET stock_quantity = stock_quantity + :delta, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND stock_quantity + :delta >= " +
+            "COALESCE((SELECT SUM(j.quantity) FROM stock_journal j WHERE j.item_id = :id), 0)", nativeQuery = true)
+    int adjustStockQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT i.stockQuantity FROM Item i WHERE i.id = :id")
+    Integer findStockQuantityById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillItemDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes a group of bills in one transaction (one commit, batched inserts).
+ *
+ * Customers and items for the whole group are resolved with one query each; bills referencing unknown
+ * ones fail without touching the database. If the transaction fails as a whole (e.g. a duplicate bill
+ * number), each bill is retried in its own transaction so only the offending ones fail.
+ * Used by the NDJSON import and the async creation pipeline.
+ */
+@Component
+public class BillBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillBatchWriter.class);
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @Autowired
+    private CustomerStatementService customerStatementService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Outcome for one bill of a group: the saved bill or the reason it was rejected
+     */
+    public static final class Result {
+        private final Bill bill;
+        private final String error;
+
+        private Result(Bill bill, String error) {
+            this.bill = bill;
+            this.error = error;
+        }
+
+        public boolean isSuccess() { return bill != null; }
+        public Bill getBill() { return bill; }
+        public String getError() { return error; }
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Write the bills, returning one result per bill in the same order
+     */
+    public List<Result> write(List<BillDto> bills) {
+        try {
+            return transactionTemplate.execute(status -> writeInTransaction(bills));
+        } catch (RuntimeException e) {
+            logger.warn("Group of {} bills failed ({}), retrying bills one by one", bills.size(), e.getMessage());
+            entityManager.clear();
+            List<Result> results = new ArrayList<>(bills.size());
+            for (BillDto bill : bills) {
+                try {
+                    results.add(transactionTemplate.execute(status -> writeInTransaction(List.of(bill))).get(0));
+                } catch (RuntimeException billError) {
+                    results.add(new Result(null, rootMessage(billError)));
+                }
+            }
+            return results;
+        } finally {
+            // Items loaded for this group are not needed any more
+            entityManager.clear();
+        }
+    }
+
+    private List<Result> writeInTransaction(List<BillDto> group) {
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (BillDto billDto : group) {
+            customerIds.add(billDto.getCustomerId());
+            if (billDto.getBillItems() == null) {
+                continue;
+            }
+            for (BillItemDto line : billDto.getBillItems()) {
+                if (line.getItemId() != null) {
+                    itemIds.add(line.getItemId());
+                }
+            }
+        }
+
+        Set<Long> existingCustomers = new HashSet<>(customerRepository.findExistingIds(customerIds));
+        Map<Long, Item> items = itemCatalogCache.getAllById(itemIds);
+
+        Result[] results = new Result[group.size()];
+        List<Bill> bills = new ArrayList<>(group.size());
+        List<Integer> billPositions = new ArrayList<>(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            String problem = checkReferences(group.get(i), existingCustomers, items);
+            if (problem != null) {
+                results[i] = new Result(null, problem);
+                continue;
+            }
+            bills.add(billService.buildBillFromDTO(group.get(i), items));
+            billPositions.add(i);
+        }
+
+        // Ids come from the pooled generator at persist time; the flush sends the inserts in batches
+        billRepository.saveAll(bills);
+
+        // One stock batch for the whole group; a short item fails the group and the bills are retried one by one
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (Bill bill : bills) {
+            StockService.quantitiesByItem(bill.getBillItems())
+                    .forEach((itemId, units) -> quantities.merge(itemId, units, Long::sum));
+        }
+        stockService.adjust(quantities);
+        entityManager.flush();
+        dailyBillRollupService.billsAdded(bills);
+        customerStatementService.invalidate(bills.stream().map(Bill::getCustomerId).toList());
+
+        for (int i = 0; i < bills.size(); i++) {
+            results[billPositions.get(i)] = new Result(bills.get(i), null);
+        }
+        return List.of(results);
+    }
+
+    private String checkReferences(BillDto billDto, Set<Long> existingCustomers, Map<Long, Item> items) {
+        if (!existingCustomers.contains(billDto.getCustomerId())) {
+            return "Customer not found with ID: " + billDto.getCustomerId();
+        }
+        if (billDto.getBillItems() == null || billDto.getBillItems().isEmpty()) {
+            return "Bill must have at least one item";
+        }
+        for (BillItemDto line : billDto.getBillItems()) {
+            if (line.getItemId() == null) {
+                return "Item ID is required for all bill items";
+            }
+            if (!items.containsKey(line.getItemId())) {
+                return "Item not found with ID: " + line.getItemId();
+            }
+            if (line.getTotalPrice() == null) {
+                return "Total price is required for all bill items";
+            }
+        }
+        return null;
+    }
+
+    private String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,237 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillCreationStatusDto;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.exception.GlobalExceptionHandler.ServiceBusyException;
+import com.pahanaedu.utils.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group-commit bill creation for POST /api/bills/async.
+ *
+ * Requests go into a bounded queue; worker threads take whatever has queued up (up to max-batch-size)
+ * and write it with BillBatchWriter, so a batch costs one transaction and one commit instead of one each.
+ * Batches grow by themselves under load: while a commit is running the next requests accumulate.
+ * When the queue stays full for offer-timeout, submissions are rejected with ServiceBusyException (503).
+ */
+@Service
+public class BillCreationPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillCreationPipeline.class);
+
+    @Autowired
+    private BillBatchWriter billBatchWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${billing.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${billing.async.workers:2}")
+    private int workers;
+
+    @Value("${billing.async.max-batch-size:50}")
+    private int maxBatchSize;
+
+    @Value("${billing.async.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${billing.async.status-cache-size:10000}")
+    private int statusCacheSize;
+
+    private BlockingQueue<PendingBill> queue;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    // Queued or committing requests; finished ones move to the bounded completed cache
+    private final ConcurrentMap<String, PendingBill> pending = new ConcurrentHashMap<>();
+    private LruCache<String, BillCreationStatusDto> completed;
+
+    private DistributionSummary batchSizes;
+    private Timer commitLatency;
+    private Counter rejected;
+
+    private static final class PendingBill {
+        private final BillDto bill;
+        private final BillCreationStatusDto status;
+        private final CompletableFuture<BillCreationStatusDto> completion = new CompletableFuture<>();
+
+        private PendingBill(BillDto bill, BillCreationStatusDto status) {
+            this.bill = bill;
+            this.status = status;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        completed = new LruCache<>(statusCacheSize);
+
+        Gauge.builder("billing.async.queue.depth", queue, BlockingQueue::size)
+                .description("Bills waiting to be committed")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("billing.async.batch.size")
+                .description("Bills committed per transaction")
+                .register(meterRegistry);
+        commitLatency = Timer.builder("billing.async.commit.latency")
+                .description("Time to write and commit one batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rejected = Counter.builder("billing.async.rejected")
+                .description("Submissions rejected because the queue was full")
+                .register(meterRegistry);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "bill-commit-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::drainQueue);
+        }
+        logger.info("Async bill pipeline started: {} workers, queue capacity {}, batches of up to {}",
+                workers, queueCapacity, maxBatchSize);
+    }
+
+    /**
+     * Queue a bill for creation. Throws ServiceBusyException if the queue stays full.
+     */
+    public BillCreationStatusDto submit(BillDto billDto) {
+        PendingBill request = new PendingBill(billDto, BillCreationStatusDto.queued(UUID.randomUUID().toString()));
+        pending.put(request.status.getTicket(), request);
+
+        boolean accepted;
+        try {
+            accepted = running && queue.offer(request, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            pending.remove(request.status.getTicket());
+            rejected.increment();
+            throw new ServiceBusyException("Bill queue is full, retry later");
+        }
+        return request.status;
+    }
+
+    /**
+     * Current state of a ticket, or empty if it is unknown (or so old it has been evicted)
+     */
+    public Optional<BillCreationStatusDto> getStatus(String ticket) {
+        PendingBill request = pending.get(ticket);
+        if (request != null) {
+            return Optional.of(request.status);
+        }
+        return Optional.ofNullable(completed.get(ticket));
+    }
+
+    /**
+     * Completes when the ticket's batch has committed (or the bill was rejected)
+     */
+    public Optional<CompletableFuture<BillCreationStatusDto>> completion(String ticket) {
+        PendingBill request = pending.get(ticket);
+        if (request != null) {
+            return Optional.of(request.completion);
+        }
+        return Optional.ofNullable(completed.get(ticket)).map(CompletableFuture::completedFuture);
+    }
+
+    private void drainQueue() {
+        List<PendingBill> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingBill first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // BillBatchWriter reports per-bill failures; anything else fails the whole batch
+                logger.error("Async bill batch of {} failed: {}", batch.size(), e.getMessage(), e);
+                for (PendingBill request : batch) {
+                    finish(request, request.status.failed("Failed to create bill: " + e.getMessage()));
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingBill> batch) {
+        List<BillDto> bills = new ArrayList<>(batch.size());
+        for (PendingBill request : batch) {
+            bills.add(request.bill);
+        }
+
+        List<BillBatchWriter.Result> results = commitLatency.record(() -> billBatchWriter.write(bills));
+        batchSizes.record(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingBill request = batch.get(i);
+            BillBatchWriter.Result result = results.get(i);
+            if (result.isSuccess()) {
+                Bill bill = result.getBill();
+                finish(request, request.status.committed(bill.getId(), bill.getBillNumber()));
+            } else {
+                finish(request, request.status.failed(result.getError()));
+            }
+        }
+        logger.debug("Committed async bill batch of {}", batch.size());
+    }
+
+    private void finish(PendingBill request, BillCreationStatusDto status) {
+        completed.put(status.getTicket(), status);
+        pending.remove(status.getTicket());
+        request.completion.complete(status);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Let workers finish the batch they are on, then fail whatever is still queued
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        List<PendingBill> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (PendingBill request : leftover) {
+            finish(request, request.status.failed("Server shut down before the bill was committed"));
+        }
+    }
+}
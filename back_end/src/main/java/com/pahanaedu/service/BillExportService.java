@@ -0,0 +1,261 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.InvoiceDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.utils.CsvUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Date-range exports of bills: a plain CSV, or a ZIP with one PDF per bill plus bills.csv.
+ *
+ * Bill ids come off a JDBC cursor and are loaded in small groups; PDFs are rendered on a shared
+ * bounded pool while earlier ones are written, and at most max-in-flight rendered PDFs are held
+ * at a time. The CSV is spooled to a temp file and added as the last entry, so heap use does not
+ * grow with the number of bills.
+ */
+@Service
+public class BillExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillExportService.class);
+
+    private static final String CSV_HEADER = CsvUtils.row("bill_number", "bill_date", "due_date", "account_number",
+            "customer_name", "status", "subtotal", "tax_amount", "total_amount", "pdf");
+
+    private static final String SUMMARY_CSV_HEADER = CsvUtils.row("bill_number", "bill_date", "due_date",
+            "account_number", "customer_name", "status", "subtotal", "tax_amount", "total_amount");
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private InvoicePdfService invoicePdfService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${billing.export.render-threads:0}")
+    private int renderThreads;
+
+    @Value("${billing.export.load-batch-size:100}")
+    private int loadBatchSize;
+
+    @Value("${billing.export.max-in-flight:64}")
+    private int maxInFlight;
+
+    @Value("${billing.export.csv-clear-interval:500}")
+    private int csvClearInterval;
+
+    private TransactionTemplate readOnlyTransaction;
+    private ExecutorService renderPool;
+
+    private static final class RenderedPdf {
+        private final String name;
+        private final byte[] content;
+
+        private RenderedPdf(String name, byte[] content) {
+            this.name = name;
+            this.content = content;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        renderPool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "bill-export-render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Write the ZIP for bills dated between from and to (inclusive) onto out
+     */
+    public void exportZip(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Path csv = Files.createTempFile("bill-export-", ".csv");
+        try (ZipOutputStream zip = new ZipOutputStream(out);
+             BufferedWriter csvWriter = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            csvWriter.write(CSV_HEADER);
+            csvWriter.newLine();
+
+            Deque<CompletableFuture<RenderedPdf>> rendering = new ArrayDeque<>();
+            int bills = readOnlyTransaction.execute(status -> {
+                try (Stream<Long> ids = billRepository.streamIdsByBillDateBetween(from, to)) {
+                    return writeBills(ids.iterator(), csvWriter, zip, rendering);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            while (!rendering.isEmpty()) {
+                writeEntry(zip, rendering.removeFirst());
+            }
+
+            csvWriter.flush();
+            zip.putNextEntry(new ZipEntry("bills.csv"));
+            Files.copy(csv, zip);
+            zip.closeEntry();
+            logger.info("Exported {} bills dated {} to {}", bills, from, to);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    /**
+     * Write a CSV of the bills dated between from and to (inclusive) onto out.
+     * Bills come off a JDBC cursor and the persistence context is cleared every csv-clear-interval rows,
+     * so memory use stays flat however long the range is.
+     */
+    public void exportCsv(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(SUMMARY_CSV_HEADER);
+        writer.newLine();
+        try {
+            int bills = readOnlyTransaction.execute(status -> {
+                try (Stream<Bill> stream = billRepository.streamByBillDateBetween(from, to)) {
+                    return writeSummaryRows(stream.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            logger.info("Exported {} bills dated {} to {} as CSV", bills, from, to);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int writeSummaryRows(Iterator<Bill> bills, BufferedWriter writer) throws IOException {
+        int count = 0;
+        while (bills.hasNext()) {
+            Bill bill = bills.next();
+            Customer customer = bill.getCustomer();
+            writer.write(CsvUtils.row(bill.getBillNumber(), bill.getBillDate(), bill.getDueDate(),
+                    customer != null ? customer.getAccountNumber() : null, customer != null ? customer.getName() : null,
+                    bill.getStatus(), bill.getSubtotal(), bill.getTaxAmount(), bill.getTotalAmount()));
+            writer.newLine();
+            if (++count % csvClearInterval == 0) {
+                // Rows already written; detach them so the persistence context doesn't hold the whole range
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        return count;
+    }
+
+    private int writeBills(Iterator<Long> ids, BufferedWriter csv, ZipOutputStream zip,
+                           Deque<CompletableFuture<RenderedPdf>> rendering) throws IOException {
+        int count = 0;
+        List<Long> group = new ArrayList<>(loadBatchSize);
+        while (ids.hasNext()) {
+            group.add(ids.next());
+            if (group.size() == loadBatchSize || !ids.hasNext()) {
+                for (InvoiceDto invoice : loadInvoices(group)) {
+                    String pdfName = "pdf/" + invoice.getBillNumber() + ".pdf";
+                    csv.write(CsvUtils.row(invoice.getBillNumber(), invoice.getBillDate(), invoice.getDueDate(),
+                            invoice.getAccountNumber(), invoice.getCustomerName(), invoice.getStatus(),
+                            invoice.getSubtotal(), invoice.getTaxAmount(), invoice.getTotalAmount(), pdfName));
+                    csv.newLine();
+
+                    rendering.addLast(CompletableFuture.supplyAsync(() -> render(pdfName, invoice), renderPool));
+                    // Bound the rendered PDFs held in memory: write the oldest before queuing more
+                    while (rendering.size() >= maxInFlight) {
+                        writeEntry(zip, rendering.removeFirst());
+                    }
+                    count++;
+                }
+                group.clear();
+            }
+        }
+        return count;
+    }
+
+    private List<InvoiceDto> loadInvoices(List<Long> ids) {
+        List<InvoiceDto> invoices = billRepository.findForInvoiceByIdIn(ids).stream().map(InvoiceDto::from).toList();
+        // The snapshots are all we need; don't let the persistence context grow with the export
+        entityManager.clear();
+        return invoices;
+    }
+
+    private RenderedPdf render(String name, InvoiceDto invoice) {
+        try {
+            ByteArrayOutputStream pdf = new ByteArrayOutputStream(16 * 1024);
+            invoicePdfService.writePdf(invoice, pdf);
+            return new RenderedPdf(name, pdf.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, CompletableFuture<RenderedPdf> future) throws IOException {
+        RenderedPdf pdf;
+        try {
+            pdf = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render bill PDF: " + e.getCause().getMessage(), e.getCause());
+        }
+        // PDFs are already compressed: store them as they are, only bills.csv is deflated
+        CRC32 crc = new CRC32();
+        crc.update(pdf.content);
+        ZipEntry entry = new ZipEntry(pdf.name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(pdf.content.length);
+        entry.setCompressedSize(pdf.content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(pdf.content);
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,139 @@
+package com.pahanaedu.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillImportResultDto;
+import com.pahanaedu.dto.BillImportSummaryDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk bill import from NDJSON (one BillDto per line).
+ *
+ * Records are read and validated one line at a time and written in chunks; each chunk is one
+ * transaction whose inserts Hibernate sends as JDBC batches (see hibernate.jdbc.batch_size).
+ * If a chunk fails as a whole (e.g. a duplicate bill number), its records are retried one by one
+ * so only the offending records are reported as failed (see BillBatchWriter). Only the current
+ * chunk is held in memory.
+ */
+@Service
+public class BillImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillImportService.class);
+
+    @Autowired
+    private BillBatchWriter billBatchWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${billing.import.chunk-size:500}")
+    private int chunkSize;
+
+    private static final class PendingRecord {
+        private final long lineNumber;
+        private final BillDto bill;
+
+        private PendingRecord(long lineNumber, BillDto bill) {
+            this.lineNumber = lineNumber;
+            this.bill = bill;
+        }
+    }
+
+    /**
+     * Import every record of the NDJSON stream. Unparseable or invalid records are reported immediately,
+     * the others once their chunk has been committed.
+     */
+    public BillImportSummaryDto importBills(InputStream input, Consumer<BillImportResultDto> results) throws IOException {
+        BillImportSummaryDto summary = new BillImportSummaryDto();
+        Consumer<BillImportResultDto> sink = result -> {
+            summary.record(result);
+            results.accept(result);
+        };
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<PendingRecord> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            BillDto billDto;
+            try {
+                billDto = objectMapper.readValue(line, BillDto.class);
+            } catch (JsonProcessingException e) {
+                sink.accept(BillImportResultDto.failure(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+
+            String violations = validate(billDto);
+            if (violations != null) {
+                sink.accept(BillImportResultDto.failure(lineNumber, violations));
+                continue;
+            }
+
+            chunk.add(new PendingRecord(lineNumber, billDto));
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, sink);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, sink);
+        }
+
+        logger.info("Bill import finished: {} records, {} succeeded, {} failed",
+                summary.getTotal(), summary.getSucceeded(), summary.getFailed());
+        return summary;
+    }
+
+    private void importChunk(List<PendingRecord> chunk, Consumer<BillImportResultDto> sink) {
+        List<BillDto> bills = new ArrayList<>(chunk.size());
+        for (PendingRecord record : chunk) {
+            bills.add(record.bill);
+        }
+
+        List<BillBatchWriter.Result> results = billBatchWriter.write(bills);
+        for (int i = 0; i < chunk.size(); i++) {
+            long lineNumber = chunk.get(i).lineNumber;
+            BillBatchWriter.Result result = results.get(i);
+            sink.accept(result.isSuccess()
+                    ? BillImportResultDto.success(lineNumber, result.getBill().getId(), result.getBill().getBillNumber())
+                    : BillImportResultDto.failure(lineNumber, result.getError()));
+        }
+    }
+
+    private String validate(BillDto billDto) {
+        Set<ConstraintViolation<BillDto>> violations = validator.validate(billDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -1,22 +1,39 @@
 package com.pahanaedu.service;
 
+import com.pahanaedu.dto.BillDetailDto;
 import com.pahanaedu.dto.BillDto;
 import com.pahanaedu.dto.BillItemDto;
+import com.pahanaedu.dto.BillPageDto;
+import com.pahanaedu.dto.BillSummaryDto;
 import com.pahanaedu.entity.Bill;
 import com.pahanaedu.entity.BillItem;
 import com.pahanaedu.entity.Item;
+import com.pahanaedu.exception.GlobalExceptionHandler.BusinessException;
 import com.pahanaedu.repository.BillRepository;
-import com.pahanaedu.repository.ItemRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -28,18 +45,42 @@ public class BillService {
     private BillRepository billRepository;
 
     @Autowired
-    private ItemRepository itemRepository;
+    private DocumentNumberAllocator documentNumberAllocator;
+
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @Autowired
+    private CustomerStatementService customerStatementService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private PricingRuleService pricingRuleService;
+
+    @Value("${billing.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${billing.pagination.max-page-size:500}")
+    private int maxPageSize;
 
     public List<Bill> getAllBills() {
         return billRepository.findAll();
     }
 
+    /**
+     * Loads the bill with its customer, lines and items fetched in the same query.
+     */
     public Optional<Bill> getBillById(Long id) {
-        return billRepository.findById(id);
+        return billRepository.findWithLinesById(id);
     }
 
     public Optional<Bill> getBillByNumber(String billNumber) {
-        return billRepository.findByBillNumber(billNumber);
+        return billRepository.findWithLinesByBillNumber(billNumber);
     }
 
     public List<Bill> getBillsByCustomer(Long customerId) {
@@ -47,92 +88,176 @@ public class BillService {
     }
 
     /**
-     * Create a bill from DTO (this method properly handles JSON data)
+     * Bill list rows as DTO projections: one query, no entity or lazy association loading.
      */
-    public Bill createBillFromDTO(BillDto billDto) {
-        logger.info("Creating bill from DTO: {}", billDto.getBillNumber());
-        logger.info("Received DTO with {} items", billDto.getBillItems() != null ? billDto.getBillItems().size() : 0);
-
-        try {
-            // Create new Bill entity
-            Bill bill = new Bill();
-
-            // Generate bill number if not provided
-            if (billDto.getBillNumber() == null || billDto.getBillNumber().isEmpty()) {
-                bill.setBillNumber(generateBillNumber());
-            } else {
-                bill.setBillNumber(billDto.getBillNumber());
-            }
-
-            // Set basic properties
-            bill.setCustomerId(billDto.getCustomerId());
-            bill.setBillDate(billDto.getBillDate());
-            bill.setDueDate(billDto.getDueDate());
-
-            // Initialize totals
-            BigDecimal subtotal = BigDecimal.ZERO;
+    @Transactional(readOnly = true)
+    public List<BillSummaryDto> getBillSummaries() {
+        return billRepository.findAllSummaries();
+    }
 
-            // Process bill items from DTO
-            if (billDto.getBillItems() != null && !billDto.getBillItems().isEmpty()) {
-                logger.info("Processing {} bill items", billDto.getBillItems().size());
+    @Transactional(readOnly = true)
+    public List<BillSummaryDto> getBillSummariesByCustomer(Long customerId) {
+        return billRepository.findSummariesByCustomerId(customerId);
+    }
 
-                for (int i = 0; i < billDto.getBillItems().size(); i++) {
-                    BillItemDto itemDto = billDto.getBillItems().get(i);
-                    logger.info("Processing item {}: itemId={}, quantity={}, unitPrice={}, totalPrice={}",
-                            i, itemDto.getItemId(), itemDto.getQuantity(), itemDto.getUnitPrice(), itemDto.getTotalPrice());
+    /**
+     * A bill with its customer and lines as DTOs, loaded with a single fetch-graph query.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BillDetailDto> getBillDetail(Long id) {
+        return billRepository.findWithLinesById(id).map(BillDetailDto::from);
+    }
 
-                    // Validate itemId
-                    if (itemDto.getItemId() == null) {
-                        logger.error("Item {} has null itemId: {}", i, itemDto);
-                        throw new RuntimeException("Item ID is required for all bill items");
-                    }
+    @Transactional(readOnly = true)
+    public Optional<BillDetailDto> getBillDetailByNumber(String billNumber) {
+        return billRepository.findWithLinesByBillNumber(billNumber).map(BillDetailDto::from);
+    }
 
-                    // Fetch the item entity
-                    Item item = itemRepository.findById(itemDto.getItemId())
-                            .orElseThrow(() -> new RuntimeException("Item not found with ID: " + itemDto.getItemId()));
+    /**
+     * Keyset pagination over bills ordered by id. A null customerId pages over all bills.
+     */
+    @Transactional(readOnly = true)
+    public BillPageDto getBillPage(Long customerId, Long cursor, Integer size) {
+        if (cursor != null && cursor < 0) {
+            throw new BusinessException("Invalid page cursor: " + cursor);
+        }
+        int pageSize = resolvePageSize(size);
+        long afterId = cursor != null ? cursor : 0L;
 
-                    // Create bill item
-                    BillItem billItem = new BillItem();
-                    billItem.setItem(item);
-                    billItem.setQuantity(itemDto.getQuantity());
-                    billItem.setUnitPrice(itemDto.getUnitPrice());
-                    billItem.setTotalPrice(itemDto.getTotalPrice());
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<BillSummaryDto> rows = customerId == null
+                ? billRepository.findSummariesAfter(afterId, limit)
+                : billRepository.findSummariesByCustomerIdAfter(customerId, afterId, limit);
 
-                    // Use helper method to set relationships
-                    bill.addBillItem(billItem);
+        boolean hasMore = rows.size() > pageSize;
+        List<BillSummaryDto> page = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
 
-                    // Add to subtotal
-                    subtotal = subtotal.add(itemDto.getTotalPrice());
+        return new BillPageDto(page, nextCursor, hasMore, page.size());
+    }
 
-                    logger.info("Successfully added bill item: itemId={}, quantity={}, unitPrice={}, totalPrice={}",
-                            item.getId(), itemDto.getQuantity(), itemDto.getUnitPrice(), itemDto.getTotalPrice());
-                }
-            } else {
-                throw new RuntimeException("Bill must have at least one item");
-            }
+    /**
+     * Push every bill summary to the consumer as rows come off the JDBC cursor.
+     * Nothing is accumulated, so memory stays flat regardless of the number of bills.
+     */
+    @Transactional(readOnly = true)
+    public void streamBillSummaries(Long customerId, Consumer<BillSummaryDto> consumer) {
+        try (Stream<BillSummaryDto> bills = customerId == null
+                ? billRepository.streamSummaries()
+                : billRepository.streamSummariesByCustomerId(customerId)) {
+            bills.forEach(consumer);
+        }
+    }
 
-            // Calculate totals
-            BigDecimal taxAmount = subtotal.multiply(new BigDecimal("0.10"));
-            BigDecimal totalAmount = subtotal.add(taxAmount);
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
 
-            bill.setSubtotal(subtotal);
-            bill.setTaxAmount(taxAmount);
-            bill.setTotalAmount(totalAmount);
+    /**
+     * Create a bill from DTO (this method properly handles JSON data)
+     */
+    public Bill createBillFromDTO(BillDto billDto) {
+        logger.info("Creating bill from DTO: {}", billDto.getBillNumber());
+        logger.info("Received DTO with {} items", billDto.getBillItems() != null ? billDto.getBillItems().size() : 0);
 
-            logger.info("Bill totals - Subtotal: {}, Tax: {}, Total: {}", subtotal, taxAmount, totalAmount);
+        try {
+            // Resolve every referenced item in a single query, then build the bill
+            Map<Long, Item> items = findItemsById(collectItemIds(billDto));
+            Bill bill = buildBillFromDTO(billDto, items);
 
             // Save the bill
             Bill savedBill = billRepository.save(bill);
+            // After persist (which may fetch an id block on another connection) so the item row locks are held
+            // only until commit; a short item rolls the bill back before it is flushed
+            stockService.adjust(StockService.quantitiesByItem(savedBill.getBillItems()));
+            dailyBillRollupService.billsAdded(List.of(savedBill));
+            customerStatementService.invalidate(savedBill.getCustomerId());
             logger.info("Successfully created bill with ID: {}", savedBill.getId());
 
             return savedBill;
 
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error creating bill from DTO: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to create bill: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Item IDs referenced by the DTO's lines; fails if the bill has no lines or a line has no itemId
+     */
+    public List<Long> collectItemIds(BillDto billDto) {
+        if (billDto.getBillItems() == null || billDto.getBillItems().isEmpty()) {
+            throw new RuntimeException("Bill must have at least one item");
+        }
+
+        List<Long> itemIds = new ArrayList<>(billDto.getBillItems().size());
+        for (int i = 0; i < billDto.getBillItems().size(); i++) {
+            BillItemDto itemDto = billDto.getBillItems().get(i);
+            if (itemDto.getItemId() == null) {
+                logger.error("Item {} has null itemId: {}", i, itemDto);
+                throw new RuntimeException("Item ID is required for all bill items");
+            }
+            itemIds.add(itemDto.getItemId());
+        }
+        return itemIds;
+    }
+
+    /**
+     * Build an unsaved Bill with its lines and totals from a DTO, using items that were already loaded
+     */
+    public Bill buildBillFromDTO(BillDto billDto, Map<Long, Item> items) {
+        // Create new Bill entity
+        Bill bill = new Bill();
+
+        // Generate bill number if not provided
+        if (billDto.getBillNumber() == null || billDto.getBillNumber().isEmpty()) {
+            bill.setBillNumber(generateBillNumber());
+        } else {
+            bill.setBillNumber(billDto.getBillNumber());
+        }
+
+        // Set basic properties
+        bill.setCustomerId(billDto.getCustomerId());
+        bill.setBillDate(billDto.getBillDate());
+        bill.setDueDate(billDto.getDueDate());
+
+        // Process bill items from DTO
+        logger.debug("Processing {} bill items", billDto.getBillItems().size());
+        for (int i = 0; i < billDto.getBillItems().size(); i++) {
+            BillItemDto itemDto = billDto.getBillItems().get(i);
+            logger.debug("Processing item {}: itemId={}, quantity={}, unitPrice={}, totalPrice={}",
+                    i, itemDto.getItemId(), itemDto.getQuantity(), itemDto.getUnitPrice(), itemDto.getTotalPrice());
+
+            Item item = items.get(itemDto.getItemId());
+            if (item == null) {
+                throw new RuntimeException("Item not found with ID: " + itemDto.getItemId());
+            }
+
+            // Create bill item
+            BillItem billItem = new BillItem();
+            billItem.setItem(item);
+            billItem.setQuantity(itemDto.getQuantity());
+            billItem.setUnitPrice(itemDto.getUnitPrice());
+            billItem.setTotalPrice(itemDto.getTotalPrice());
+
+            // Use helper method to set relationships
+            bill.addBillItem(billItem);
+        }
+
+        // Calculate totals
+        pricingRuleService.priceBill(bill);
+
+        logger.debug("Bill totals - Subtotal: {}, Discount: {}, Tax: {}, Total: {}",
+                bill.getSubtotal(), bill.getDiscountAmount(), bill.getTaxAmount(), bill.getTotalAmount());
+        return bill;
+    }
+
     public Bill saveBill(Bill bill) {
         logger.info("Saving bill: {}", bill.getBillNumber());
 
@@ -160,6 +285,13 @@ public class BillService {
                 // Clear existing items
                 bill.clearBillItems();
 
+                // Resolve all items referenced by id in a single query
+                Map<Long, Item> items = findItemsById(originalItems.stream()
+                        .filter(sourceItem -> sourceItem.getItem() == null)
+                        .map(BillItem::getItemIdFromJson)
+                        .filter(Objects::nonNull)
+                        .toList());
+
                 // Process each item and add it back using helper method
                 for (BillItem sourceItem : originalItems) {
                     BillItem billItem = new BillItem();
@@ -169,14 +301,13 @@ public class BillService {
                     billItem.setUnitPrice(sourceItem.getUnitPrice());
                     billItem.setTotalPrice(sourceItem.getTotalPrice());
 
-                    // Handle Item relationship properly - check JSON itemId first
-                    Long itemId = null;
+                    // Handle Item relationship properly - use the Item entity if present, otherwise the JSON itemId
                     if (sourceItem.getItem() != null) {
                         billItem.setItem(sourceItem.getItem());
                         logger.debug("Using existing Item entity: {}", sourceItem.getItem().getId());
-                    } else if (sourceItem.getItemId() != null) {
-                        itemId = sourceItem.getItemId();
-                        logger.debug("Got itemId from relationship: {}", itemId);
+                    } else if (sourceItem.getItemIdFromJson() != null) {
+                        billItem.setItem(items.get(sourceItem.getItemIdFromJson()));
+                        logger.debug("Resolved Item entity from itemId: {}", sourceItem.getItemIdFromJson());
                     } else {
                         logger.error("BillItem debug - Item: {}, ItemId: {}, Quantity: {}, UnitPrice: {}, TotalPrice: {}",
                                 sourceItem.getItem(), sourceItem.getItemId(), sourceItem.getQuantity(),
@@ -184,15 +315,6 @@ public class BillService {
                         throw new RuntimeException("Item selection is required for all bill items. Frontend sent itemId but backend received null. Check your BillItem entity mapping.");
                     }
 
-                    // Load item if we have an itemId
-                    if (itemId != null) {
-                        final Long finalItemId = itemId;
-                        Item item = itemRepository.findById(finalItemId)
-                                .orElseThrow(() -> new RuntimeException("Item not found with ID: " + finalItemId));
-                        billItem.setItem(item);
-                        logger.debug("Loaded Item entity from database: {}", item.getId());
-                    }
-
                     // Use helper method to properly set Bill relationship
                     bill.addBillItem(billItem);
                 }
@@ -201,12 +323,28 @@ public class BillService {
             // Calculate totals
             calculateBillTotals(bill);
 
+            // A bill with an id replaces the stored one; take that one out of the rollup
+            DailyBillRollupService.Snapshot before = bill.getId() != null
+                    ? dailyBillRollupService.loadSnapshot(bill.getId()).orElse(null)
+                    : null;
+            Long previousCustomerId = bill.getId() != null
+                    ? billRepository.findCustomerIdById(bill.getId()).orElse(null)
+                    : null;
+            Map<Long, Long> quantitiesBefore = bill.getId() != null
+                    ? stockService.storedQuantities(bill.getId())
+                    : Map.of();
+
             // Save the bill
             Bill savedBill = billRepository.save(bill);
+            stockService.adjust(quantitiesBefore, StockService.quantitiesByItem(savedBill.getBillItems()));
+            dailyBillRollupService.billChanged(before, savedBill);
+            customerStatementService.invalidate(Arrays.asList(previousCustomerId, savedBill.getCustomerId()));
             logger.info("Successfully saved bill with ID: {}", savedBill.getId());
 
             return savedBill;
 
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error saving bill: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to save bill: " + e.getMessage(), e);
@@ -217,8 +355,11 @@ public class BillService {
         logger.info("Updating bill with ID: {}", id);
 
         try {
-            Bill bill = billRepository.findById(id)
+            // Locked so a concurrent update or delete cannot change the row between this snapshot and our write
+            Bill bill = billRepository.findForUpdateById(id)
                     .orElseThrow(() -> new RuntimeException("Bill not found with id: " + id));
+            DailyBillRollupService.Snapshot before = DailyBillRollupService.Snapshot.of(bill);
+            Map<Long, Long> quantitiesBefore = stockService.storedQuantities(id);
 
             bill.setBillDate(billDetails.getBillDate());
             bill.setDueDate(billDetails.getDueDate());
@@ -226,64 +367,143 @@ public class BillService {
 
             // Handle bill items update properly
             if (billDetails.getBillItems() != null) {
-                // Clear existing items
-                bill.clearBillItems();
+                // Resolve all items referenced by id in a single query
+                Map<Long, Item> items = findItemsById(billDetails.getBillItems().stream()
+                        .filter(sourceItem -> sourceItem.getItem() == null)
+                        .map(BillItem::getItemIdFromJson)
+                        .filter(Objects::nonNull)
+                        .toList());
+
+                // Update matching lines in place, add new ones and drop the rest
+                mergeBillItems(bill, billDetails.getBillItems(), items);
+            }
 
-                // Process and add new items
-                for (BillItem sourceItem : billDetails.getBillItems()) {
-                    BillItem billItem = new BillItem();
+            calculateBillTotals(bill);
+            Bill savedBill = billRepository.save(bill);
+            stockService.adjust(quantitiesBefore, StockService.quantitiesByItem(savedBill.getBillItems()));
+            dailyBillRollupService.billChanged(before, savedBill);
+            customerStatementService.invalidate(savedBill.getCustomerId());
+            return savedBill;
 
-                    // Copy properties
-                    billItem.setQuantity(sourceItem.getQuantity());
-                    billItem.setUnitPrice(sourceItem.getUnitPrice());
-                    billItem.setTotalPrice(sourceItem.getTotalPrice());
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error updating bill: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to update bill: " + e.getMessage(), e);
+        }
+    }
 
-                    // Handle Item relationship
-                    if (sourceItem.getItem() != null) {
-                        billItem.setItem(sourceItem.getItem());
-                    } else if (sourceItem.getItemId() != null) {
-                        Item item = itemRepository.findById(sourceItem.getItemId())
-                                .orElseThrow(() -> new RuntimeException("Item not found with ID: " + sourceItem.getItemId()));
-                        billItem.setItem(item);
-                    }
+    /**
+     * Apply incoming lines to the bill's existing lines. Lines that carry a line id are matched first;
+     * the remaining lines then fall back to an unclaimed existing line for the same item. Only changed
+     * fields are written, so unchanged lines cause no SQL and orphan removal deletes only the lines
+     * that disappeared.
+     */
+    private void mergeBillItems(Bill bill, List<BillItem> incomingItems, Map<Long, Item> items) {
+        Map<Long, BillItem> existingById = new HashMap<>();
+        Map<Long, Deque<BillItem>> existingByItemId = new HashMap<>();
+        for (BillItem existing : bill.getBillItems()) {
+            existingById.put(existing.getId(), existing);
+            existingByItemId.computeIfAbsent(existing.getItemId(), key -> new ArrayDeque<>()).add(existing);
+        }
 
-                    // Use helper method
-                    bill.addBillItem(billItem);
+        // Claim lines named by id before any item match, so a line matched by item cannot take them
+        BillItem[] matches = new BillItem[incomingItems.size()];
+        for (int i = 0; i < incomingItems.size(); i++) {
+            Long lineId = incomingItems.get(i).getId();
+            BillItem match = lineId != null ? existingById.remove(lineId) : null;
+            if (match != null) {
+                existingByItemId.get(match.getItemId()).remove(match);
+                matches[i] = match;
+            }
+        }
+
+        for (int i = 0; i < incomingItems.size(); i++) {
+            BillItem sourceItem = incomingItems.get(i);
+            Item item = sourceItem.getItem() != null
+                    ? sourceItem.getItem()
+                    : sourceItem.getItemIdFromJson() != null ? items.get(sourceItem.getItemIdFromJson()) : null;
+
+            BillItem match = matches[i];
+            if (match == null && item != null) {
+                Deque<BillItem> candidates = existingByItemId.get(item.getId());
+                match = candidates != null ? candidates.pollFirst() : null;
+                if (match != null) {
+                    existingById.remove(match.getId());
                 }
             }
 
-            calculateBillTotals(bill);
-            return billRepository.save(bill);
+            if (match == null) {
+                BillItem billItem = new BillItem();
+                billItem.setItem(item);
+                billItem.setQuantity(sourceItem.getQuantity());
+                billItem.setUnitPrice(sourceItem.getUnitPrice());
+                billItem.setTotalPrice(sourceItem.getTotalPrice());
+                bill.addBillItem(billItem);
+                continue;
+            }
 
-        } catch (Exception e) {
-            logger.error("Error updating bill: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to update bill: " + e.getMessage(), e);
+            if (item != null && !item.getId().equals(match.getItemId())) {
+                match.setItem(item);
+            }
+            if (!sameAmount(match.getQuantity(), sourceItem.getQuantity())
+                    || !sameAmount(match.getUnitPrice(), sourceItem.getUnitPrice())
+                    || !sameAmount(match.getTotalPrice(), sourceItem.getTotalPrice())) {
+                match.setQuantity(sourceItem.getQuantity());
+                match.setUnitPrice(sourceItem.getUnitPrice());
+                match.setTotalPrice(sourceItem.getTotalPrice());
+            }
+        }
+
+        // Whatever was not claimed is no longer on the bill
+        for (BillItem removed : existingById.values()) {
+            bill.removeBillItem(removed);
         }
     }
 
+    private boolean sameAmount(BigDecimal current, BigDecimal incoming) {
+        return current == null ? incoming == null : incoming != null && current.compareTo(incoming) == 0;
+    }
+
     public void deleteBill(Long id) {
+        Optional<DailyBillRollupService.Snapshot> before = dailyBillRollupService.loadSnapshot(id);
+        Optional<Long> customerId = billRepository.findCustomerIdById(id);
+        // Deleting a bill puts its units back
+        stockService.adjust(stockService.storedQuantities(id), Map.of());
         billRepository.deleteById(id);
+        before.ifPresent(dailyBillRollupService::billRemoved);
+        customerId.ifPresent(customerStatementService::invalidate);
     }
 
     private void calculateBillTotals(Bill bill) {
         if (bill.getBillItems() != null && !bill.getBillItems().isEmpty()) {
-            BigDecimal subtotal = bill.getBillItems().stream()
-                    .map(BillItem::getTotalPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Tax and discount rates come from the pricing rules in force on the bill date
+            pricingRuleService.priceBill(bill);
+        }
+    }
 
-            bill.setSubtotal(subtotal);
+    /**
+     * Look every referenced item up in the catalog cache, loading the missing ones with one query;
+     * all unknown IDs are reported together
+     */
+    private Map<Long, Item> findItemsById(Collection<Long> itemIds) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(itemIds);
+        if (uniqueIds.isEmpty()) {
+            return Map.of();
+        }
 
-            // Calculate tax (10% for example)
-            BigDecimal taxRate = new BigDecimal("0.10");
-            BigDecimal taxAmount = subtotal.multiply(taxRate);
-            bill.setTaxAmount(taxAmount);
+        Map<Long, Item> items = itemCatalogCache.getAllById(uniqueIds);
 
-            bill.setTotalAmount(subtotal.add(taxAmount));
+        if (items.size() < uniqueIds.size()) {
+            List<Long> missingIds = uniqueIds.stream()
+                    .filter(id -> !items.containsKey(id))
+                    .toList();
+            throw new RuntimeException("Items not found with IDs: " + missingIds);
         }
+        return items;
     }
 
     private String generateBillNumber() {
-        long count = billRepository.count();
-        return String.format("BILL%06d", count + 1);
+        return documentNumberAllocator.next(DocumentNumberAllocator.DocumentType.BILL);
     }
 }
\ No newline at end of file
@@ -16,6 +16,15 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private DocumentNumberAllocator documentNumberAllocator;
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @Autowired
+    private CustomerStatementService customerStatementService;
+
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
@@ -46,15 +55,18 @@ public class CustomerService {
         customer.setEmail(customerDetails.getEmail());
         customer.setUnitsConsumed(customerDetails.getUnitsConsumed());
 
+        customerStatementService.invalidate(id);
         return customerRepository.save(customer);
     }
 
     public void deleteCustomer(Long id) {
+        // The customer's bills are deleted with it (ON DELETE CASCADE)
+        dailyBillRollupService.customerBillsRemoved(id);
         customerRepository.deleteById(id);
+        customerStatementService.invalidate(id);
     }
 
     private String generateAccountNumber() {
-        long count = customerRepository.count();
-        return String.format("ACC%06d", count + 1);
+        return documentNumberAllocator.next(DocumentNumberAllocator.DocumentType.CUSTOMER);
     }
 }
\ No newline at end of file
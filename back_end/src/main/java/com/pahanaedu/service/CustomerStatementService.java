@@ -0,0 +1,168 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.CustomerStatementDto;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.utils.LruCache;
+import com.pahanaedu.utils.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Customer statements: opening balance, bills in the period, paid and outstanding totals and aging
+ * buckets, aggregated in one SQL statement.
+ *
+ * Statements are cached per customer (a few periods each). Bill and customer changes invalidate the
+ * customer's entry after their transaction commits; a generation counter stops a statement computed
+ * from pre-commit data from being cached after the invalidation ran.
+ */
+@Service
+public class CustomerStatementService {
+
+    private static final int PERIODS_PER_CUSTOMER = 8;
+
+    // Unpaid = not PAID; buckets compare due dates against precomputed cut-offs so no date functions are needed
+    private static final String STATEMENT_SQL =
+            "SELECT c.account_number, c.name, " +
+            "COALESCE(SUM(CASE WHEN b.bill_date < :from AND b.status <> 'PAID' THEN b.total_amount END), 0) AS opening_balance, " +
+            "COUNT(CASE WHEN b.bill_date >= :from THEN 1 END) AS bill_count, " +
+            "COALESCE(SUM(CASE WHEN b.bill_date >= :from THEN b.total_amount END), 0) AS billed_total, " +
+            "COALESCE(SUM(CASE WHEN b.bill_date >= :from AND b.status = 'PAID' THEN b.total_amount END), 0) AS paid_total, " +
+            "COALESCE(SUM(CASE WHEN b.status <> 'PAID' THEN b.total_amount END), 0) AS outstanding_total, " +
+            "COALESCE(SUM(CASE WHEN b.status <> 'PAID' AND (b.due_date IS NULL OR b.due_date >= :asOf) " +
+            "THEN b.total_amount END), 0) AS aging_current, " +
+            "COALESCE(SUM(CASE WHEN b.status <> 'PAID' AND b.due_date < :asOf AND b.due_date >= :due30 " +
+            "THEN b.total_amount END), 0) AS aging_1_30, " +
+            "COALESCE(SUM(CASE WHEN b.status <> 'PAID' AND b.due_date < :due30 AND b.due_date >= :due60 " +
+            "THEN b.total_amount END), 0) AS aging_31_60, " +
+            "COALESCE(SUM(CASE WHEN b.status <> 'PAID' AND b.due_date < :due60 AND b.due_date >= :due90 " +
+            "THEN b.total_amount END), 0) AS aging_61_90, " +
+            "COALESCE(SUM(CASE WHEN b.status <> 'PAID' AND b.due_date < :due90 THEN b.total_amount END), 0) AS aging_over_90 " +
+            "FROM customers c LEFT JOIN bills b ON b.customer_id = c.id AND b.bill_date <= :to " +
+            "WHERE c.id = :customerId GROUP BY c.id, c.account_number, c.name";
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Value("${billing.statement.cache-size:1000}")
+    private int cacheSize;
+
+    private LruCache<Long, LruCache<String, CustomerStatementDto>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        cache = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Statement for bills dated up to to; bills before from make up the opening balance.
+     * Empty if the customer does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CustomerStatementDto> getStatement(Long customerId, LocalDate from, LocalDate to) {
+        String period = from + "/" + to;
+        LruCache<String, CustomerStatementDto> periods = cache.get(customerId);
+        CustomerStatementDto cached = periods != null ? periods.get(period) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long startGeneration = generation.get();
+        Optional<CustomerStatementDto> statement = load(customerId, from, to);
+        statement.ifPresent(loaded -> {
+            synchronized (this) {
+                // Skip caching if a bill change committed while this statement was being computed
+                if (generation.get() == startGeneration) {
+                    LruCache<String, CustomerStatementDto> entry = cache.get(customerId);
+                    if (entry == null) {
+                        entry = new LruCache<>(PERIODS_PER_CUSTOMER);
+                        cache.put(customerId, entry);
+                    }
+                    entry.put(period, loaded);
+                }
+            }
+        });
+        return statement;
+    }
+
+    /**
+     * Drop the cached statements of the given customers once the current transaction commits
+     */
+    public void invalidate(Collection<Long> customerIds) {
+        List<Long> ids = customerIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (!ids.isEmpty()) {
+            TransactionHooks.afterCommit(() -> {
+                synchronized (this) {
+                    generation.incrementAndGet();
+                    ids.forEach(cache::remove);
+                }
+            });
+        }
+    }
+
+    public void invalidate(Long customerId) {
+        invalidate(List.of(customerId));
+    }
+
+    /**
+     * Drop every cached statement once the current transaction commits (for bulk changes)
+     */
+    public void invalidateAll() {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                cache.clear();
+            }
+        });
+    }
+
+    private Optional<CustomerStatementDto> load(Long customerId, LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("customerId", customerId)
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to))
+                .addValue("asOf", Date.valueOf(to))
+                .addValue("due30", Date.valueOf(to.minusDays(30)))
+                .addValue("due60", Date.valueOf(to.minusDays(60)))
+                .addValue("due90", Date.valueOf(to.minusDays(90)));
+        List<CustomerStatementDto> rows = namedParameterJdbcTemplate.query(STATEMENT_SQL, params, (rs, rowNum) -> {
+            CustomerStatementDto statement = new CustomerStatementDto();
+            statement.setCustomerId(customerId);
+            statement.setAccountNumber(rs.getString("account_number"));
+            statement.setCustomerName(rs.getString("name"));
+            statement.setFrom(from);
+            statement.setTo(to);
+            statement.setOpeningBalance(rs.getBigDecimal("opening_balance"));
+            statement.setBillCount(rs.getLong("bill_count"));
+            statement.setBilledTotal(rs.getBigDecimal("billed_total"));
+            statement.setPaidTotal(rs.getBigDecimal("paid_total"));
+            statement.setOutstandingTotal(rs.getBigDecimal("outstanding_total"));
+            statement.setAging(new CustomerStatementDto.Aging(rs.getBigDecimal("aging_current"),
+                    rs.getBigDecimal("aging_1_30"), rs.getBigDecimal("aging_31_60"),
+                    rs.getBigDecimal("aging_61_90"), rs.getBigDecimal("aging_over_90")));
+            return statement;
+        });
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        CustomerStatementDto statement = rows.get(0);
+        statement.setBills(billRepository.findSummariesByCustomerIdAndBillDateBetween(customerId, from, to));
+        return Optional.of(statement);
+    }
+}
@@ -0,0 +1,303 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.SalesTotalsDto;
+import com.pahanaedu.entity.Bill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Maintains daily_bill_rollup: bill count, subtotal, tax and total per bill date and status.
+ *
+ * Every bill change applies its delta here inside the caller's transaction, so the rollup commits
+ * or rolls back together with the bill. Deltas are applied in (date, status) order so concurrent
+ * transactions lock rollup rows in the same order. Reports read the rollup instead of scanning bills.
+ */
+@Service
+public class DailyBillRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyBillRollupService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO daily_bill_rollup (bill_date, status, bill_count, subtotal, tax_amount, total_amount) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "bill_count = bill_count + VALUES(bill_count), subtotal = subtotal + VALUES(subtotal), " +
+            "tax_amount = tax_amount + VALUES(tax_amount), total_amount = total_amount + VALUES(total_amount)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${billing.rollup.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The part of a bill the rollup depends on, captured before the bill changes
+     */
+    public static final class Snapshot {
+        private final LocalDate billDate;
+        private final Bill.BillStatus status;
+        private final BigDecimal subtotal;
+        private final BigDecimal taxAmount;
+        private final BigDecimal totalAmount;
+
+        private Snapshot(LocalDate billDate, Bill.BillStatus status,
+                         BigDecimal subtotal, BigDecimal taxAmount, BigDecimal totalAmount) {
+            this.billDate = billDate;
+            this.status = status;
+            // Same rounding as the DECIMAL(12,2) bill columns, so deltas match what a rebuild computes
+            this.subtotal = money(subtotal);
+            this.taxAmount = money(taxAmount);
+            this.totalAmount = money(totalAmount);
+        }
+
+        public static Snapshot of(Bill bill) {
+            return new Snapshot(bill.getBillDate(), bill.getStatus(),
+                    bill.getSubtotal(), bill.getTaxAmount(), bill.getTotalAmount());
+        }
+
+        public static Snapshot of(LocalDate billDate, Bill.BillStatus status,
+                                  BigDecimal subtotal, BigDecimal taxAmount, BigDecimal totalAmount) {
+            return new Snapshot(billDate, status, subtotal, taxAmount, totalAmount);
+        }
+
+        private static BigDecimal money(BigDecimal amount) {
+            return amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2);
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final LocalDate billDate;
+        private final String status;
+
+        private Key(LocalDate billDate, String status) {
+            this.billDate = billDate;
+            this.status = status;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byDate = billDate.compareTo(other.billDate);
+            return byDate != 0 ? byDate : status.compareTo(other.status);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && billDate.equals(key.billDate) && status.equals(key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return billDate.hashCode() * 31 + status.hashCode();
+        }
+    }
+
+    private static final class Delta {
+        private long count;
+        private BigDecimal subtotal = BigDecimal.ZERO;
+        private BigDecimal taxAmount = BigDecimal.ZERO;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+
+        private boolean isEmpty() {
+            return count == 0 && subtotal.signum() == 0 && taxAmount.signum() == 0 && totalAmount.signum() == 0;
+        }
+    }
+
+    /**
+     * Current rollup-relevant state of a bill as stored, e.g. before deleting or replacing it. The row is
+     * locked until the caller's transaction ends, so no other change can slip in before the caller's own.
+     */
+    public Optional<Snapshot> loadSnapshot(Long billId) {
+        return jdbcTemplate.query(
+                "SELECT bill_date, status, subtotal, tax_amount, total_amount FROM bills WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> new Snapshot(
+                        rs.getDate("bill_date") != null ? rs.getDate("bill_date").toLocalDate() : null,
+                        rs.getString("status") != null ? Bill.BillStatus.valueOf(rs.getString("status")) : null,
+                        rs.getBigDecimal("subtotal"), rs.getBigDecimal("tax_amount"), rs.getBigDecimal("total_amount")),
+                billId).stream().findFirst();
+    }
+
+    public void billsAdded(Collection<Bill> bills) {
+        Map<Key, Delta> deltas = new TreeMap<>();
+        for (Bill bill : bills) {
+            add(deltas, Snapshot.of(bill), 1);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * A bill went from before (null if it is new) to after
+     */
+    public void billChanged(Snapshot before, Bill after) {
+        Map<Key, Delta> deltas = new TreeMap<>();
+        if (before != null) {
+            add(deltas, before, -1);
+        }
+        add(deltas, Snapshot.of(after), 1);
+        apply(deltas);
+    }
+
+    /**
+     * Bills that were updated in bulk (without entities) from their snapshot status to newStatus
+     */
+    public void billsMoved(Collection<Snapshot> before, Bill.BillStatus newStatus) {
+        Map<Key, Delta> deltas = new TreeMap<>();
+        for (Snapshot bill : before) {
+            add(deltas, bill, -1);
+            add(deltas, new Snapshot(bill.billDate, newStatus, bill.subtotal, bill.taxAmount, bill.totalAmount), 1);
+        }
+        apply(deltas);
+    }
+
+    public void billRemoved(Snapshot before) {
+        Map<Key, Delta> deltas = new TreeMap<>();
+        add(deltas, before, -1);
+        apply(deltas);
+    }
+
+    /**
+     * Take out all of a customer's bills; call before deleting the customer (bills go with it by cascade).
+     * The customer row and its bills are locked until the caller's transaction ends, so no bill can be
+     * added or changed between the totals read here and the delete (as loadSnapshot does for one bill).
+     */
+    public void customerBillsRemoved(Long customerId) {
+        // Grouped selects cannot lock rows, so lock them first; new bills wait on the customer row
+        jdbcTemplate.queryForList("SELECT id FROM customers WHERE id = ? FOR UPDATE", Long.class, customerId);
+        jdbcTemplate.queryForList("SELECT id FROM bills WHERE customer_id = ? FOR UPDATE", Long.class, customerId);
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT bill_date, status, -COUNT(*), -SUM(subtotal), -SUM(tax_amount), -SUM(total_amount) " +
+                "FROM bills WHERE customer_id = ? AND bill_date IS NOT NULL AND status IS NOT NULL " +
+                "GROUP BY bill_date, status ORDER BY bill_date, status",
+                (rs, rowNum) -> new Object[] {rs.getDate(1), rs.getString(2), rs.getLong(3),
+                        rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getBigDecimal(6)},
+                customerId);
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * Totals per day and status for a date range (inclusive), read from the rollup
+     */
+    public List<SalesTotalsDto> findTotalsByDateAndStatus(LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.query(
+                "SELECT bill_date, status, bill_count, subtotal, tax_amount, total_amount FROM daily_bill_rollup " +
+                "WHERE bill_date BETWEEN ? AND ? AND bill_count <> 0 ORDER BY bill_date, status",
+                (rs, rowNum) -> new SalesTotalsDto(rs.getDate("bill_date").toLocalDate(),
+                        Bill.BillStatus.valueOf(rs.getString("status")), rs.getLong("bill_count"),
+                        rs.getBigDecimal("subtotal"), rs.getBigDecimal("tax_amount"), rs.getBigDecimal("total_amount")),
+                Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    /**
+     * Recompute the whole rollup from bills, one month per transaction, several months in parallel.
+     * Bills written while a month is being rebuilt may be missed or counted twice, so run it when
+     * the system is quiet (e.g. after a bulk load). Returns the number of rollup rows written.
+     */
+    public int rebuild() {
+        Date[] range = jdbcTemplate.queryForObject("SELECT MIN(bill_date), MAX(bill_date) FROM bills",
+                (rs, rowNum) -> new Date[] {rs.getDate(1), rs.getDate(2)});
+        if (range == null || range[0] == null) {
+            jdbcTemplate.update("DELETE FROM daily_bill_rollup");
+            logger.info("Rollup rebuild: no bills");
+            return 0;
+        }
+        // Months in between are rebuilt below; rows outside the bills' date range just go
+        jdbcTemplate.update("DELETE FROM daily_bill_rollup WHERE bill_date < ? OR bill_date > ?", range[0], range[1]);
+
+        YearMonth first = YearMonth.from(range[0].toLocalDate());
+        YearMonth last = YearMonth.from(range[1].toLocalDate());
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            List<Future<Integer>> months = new ArrayList<>();
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                YearMonth partition = month;
+                months.add(executor.submit(() -> rebuildMonth(partition)));
+            }
+
+            int rows = 0;
+            for (Future<Integer> month : months) {
+                rows += month.get();
+            }
+            logger.info("Rollup rebuilt: {} months, {} rows", months.size(), rows);
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Rollup rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int rebuildMonth(YearMonth month) {
+        Date start = Date.valueOf(month.atDay(1));
+        Date end = Date.valueOf(month.atEndOfMonth());
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM daily_bill_rollup WHERE bill_date BETWEEN ? AND ?", start, end);
+            return jdbcTemplate.update(
+                    "INSERT INTO daily_bill_rollup (bill_date, status, bill_count, subtotal, tax_amount, total_amount) " +
+                    "SELECT bill_date, status, COUNT(*), SUM(subtotal), SUM(tax_amount), SUM(total_amount) " +
+                    "FROM bills WHERE bill_date BETWEEN ? AND ? AND status IS NOT NULL GROUP BY bill_date, status",
+                    start, end);
+        });
+    }
+
+    private void add(Map<Key, Delta> deltas, Snapshot bill, int sign) {
+        // Bills without a date or status cannot be placed in the rollup (nor are they by rebuild)
+        if (bill.billDate == null || bill.status == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(new Key(bill.billDate, bill.status.name()), key -> new Delta());
+        delta.count += sign;
+        delta.subtotal = sign > 0 ? delta.subtotal.add(bill.subtotal) : delta.subtotal.subtract(bill.subtotal);
+        delta.taxAmount = sign > 0 ? delta.taxAmount.add(bill.taxAmount) : delta.taxAmount.subtract(bill.taxAmount);
+        delta.totalAmount = sign > 0 ? delta.totalAmount.add(bill.totalAmount) : delta.totalAmount.subtract(bill.totalAmount);
+    }
+
+    private void apply(Map<Key, Delta> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            // e.g. an update that changed neither date, status nor amounts
+            if (!delta.isEmpty()) {
+                rows.add(new Object[] {Date.valueOf(key.billDate), key.status, delta.count,
+                        delta.subtotal, delta.taxAmount, delta.totalAmount});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.pahanaedu.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out bill numbers, item codes and account numbers (hi/lo style).
+ *
+ * Each node reserves a block of numbers by bumping a row in document_sequences in its own
+ * short transaction, then serves numbers from memory with an atomic counter. Blocks never
+ * overlap, so numbers are unique across threads and across application instances. Numbers
+ * left in a block when the node stops are skipped, so gaps are expected.
+ *
+ * The first block a node reserves for a type also moves the row past the highest number
+ * already stored, so rows seeded by hand or numbers imported from elsewhere are never reissued.
+ */
+@Service
+public class DocumentNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentNumberAllocator.class);
+
+    public enum DocumentType {
+        BILL("BILL", "bills", "bill_number"),
+        ITEM("ITM", "items", "item_code"),
+        CUSTOMER("ACC", "customers", "account_number");
+
+        private final String prefix;
+        private final String table;
+        private final String column;
+
+        DocumentType(String prefix, String table, String column) {
+            this.prefix = prefix;
+            this.table = table;
+            this.column = column;
+        }
+
+        public String format(long number) {
+            return String.format("%s%06d", prefix, number);
+        }
+    }
+
+    // Numbers [next, end) of the block currently being served
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${billing.numbering.block-size:50}")
+    private int blockSize;
+
+    private final Map<DocumentType, AtomicReference<Block>> blocks = new EnumMap<>(DocumentType.class);
+
+    // Types whose row this node has already checked against the numbers in use
+    private final Set<DocumentType> checkedAgainstTable = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate reserveTransaction;
+
+    @PostConstruct
+    void init() {
+        for (DocumentType type : DocumentType.values()) {
+            blocks.put(type, new AtomicReference<>(new Block(0, 0)));
+        }
+        // Reserve blocks in their own transaction so the row lock is held only for two statements
+        reserveTransaction = new TransactionTemplate(transactionManager);
+        reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next formatted number for the type, e.g. BILL000123
+     */
+    public String next(DocumentType type) {
+        return type.format(nextValue(type));
+    }
+
+    public long nextValue(DocumentType type) {
+        AtomicReference<Block> current = blocks.get(type);
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            // Block exhausted: one thread reserves the next one, the others retry on it
+            synchronized (current) {
+                if (current.get() == block) {
+                    current.set(reserveBlock(type));
+                }
+            }
+        }
+    }
+
+    private Block reserveBlock(DocumentType type) {
+        Long end = reserveTransaction.execute(status -> {
+            Long floor = null;
+            if (!checkedAgainstTable.contains(type)) {
+                // Only ever moves the row forward, so racing nodes cannot pull it back
+                floor = seedValue(type);
+                jdbcTemplate.update(
+                        "UPDATE document_sequences SET next_value = ? WHERE sequence_name = ? AND next_value < ?",
+                        floor, type.name(), floor);
+            }
+            int updated = jdbcTemplate.update(
+                    "UPDATE document_sequences SET next_value = next_value + ? WHERE sequence_name = ?",
+                    blockSize, type.name());
+            if (updated == 0) {
+                long start = floor != null ? floor : seedValue(type);
+                try {
+                    jdbcTemplate.update(
+                            "INSERT INTO document_sequences (sequence_name, next_value) VALUES (?, ?)",
+                            type.name(), start + blockSize);
+                    return start + blockSize;
+                } catch (DuplicateKeyException e) {
+                    // Another node created the row first; take a block from it instead
+                    jdbcTemplate.update(
+                            "UPDATE document_sequences SET next_value = next_value + ? WHERE sequence_name = ?",
+                            blockSize, type.name());
+                }
+            }
+            return jdbcTemplate.queryForObject(
+                    "SELECT next_value FROM document_sequences WHERE sequence_name = ?", Long.class, type.name());
+        });
+
+        checkedAgainstTable.add(type);
+        logger.debug("Reserved {} numbers [{}, {})", type, end - blockSize, end);
+        return new Block(end - blockSize, end);
+    }
+
+    /**
+     * One past the highest number already in use for the type. Numbers are compared by value, not
+     * as strings, so BILL1000000 counts as higher than BILL999999; codes with a non-numeric suffix
+     * are ignored.
+     */
+    private long seedValue(DocumentType type) {
+        Long highest = jdbcTemplate.query(
+                "SELECT " + type.column + " FROM " + type.table + " WHERE " + type.column + " LIKE ?"
+                        + " ORDER BY CHAR_LENGTH(" + type.column + ") DESC, " + type.column + " DESC",
+                rs -> {
+                    while (rs.next()) {
+                        Long number = parseNumber(type, rs.getString(1));
+                        if (number != null) {
+                            return number;
+                        }
+                    }
+                    return null;
+                },
+                type.prefix + "%");
+        return highest != null ? highest + 1 : 1;
+    }
+
+    private static Long parseNumber(DocumentType type, String code) {
+        String digits = code.substring(type.prefix.length());
+        if (digits.isEmpty() || !digits.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return null;
+        }
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
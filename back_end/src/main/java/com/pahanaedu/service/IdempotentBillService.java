@@ -0,0 +1,205 @@
+package com.pahanaedu.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.IdempotencyKey;
+import com.pahanaedu.exception.GlobalExceptionHandler.IdempotencyKeyReusedException;
+import com.pahanaedu.repository.IdempotencyKeyRepository;
+import com.pahanaedu.utils.LruCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bill creation keyed by the client's Idempotency-Key header.
+ *
+ * Key to bill-id mappings live in the idempotency_keys table, fronted by a bounded LRU cache, so a
+ * retried request returns the bill it created the first time without running createBillFromDTO again.
+ * The mapping is written in the same transaction as the bill. Concurrent requests with the same key
+ * wait for the first one on this node; across nodes the primary key on idempotency_keys decides the winner.
+ *
+ * Each mapping also stores a hash of the request body: a key sent again with a different body is
+ * refused (422) rather than answered with the earlier bill. Keys expire after ttl-hours and are
+ * purged by an hourly sweep.
+ */
+@Service
+public class IdempotentBillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentBillService.class);
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${billing.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${billing.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    private TransactionTemplate transactionTemplate;
+    private LruCache<String, IdempotencyKey> mappingsByKey;
+    private final ConcurrentMap<String, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        mappingsByKey = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Create the bill for this key, or return the bill an earlier request with the same key created.
+     * Throws IdempotencyKeyReusedException if that earlier request had a different body.
+     */
+    public Bill createBill(String key, BillDto billDto) {
+        String requestHash = hash(billDto);
+        Optional<Bill> replayed = findReplay(key, requestHash);
+        if (replayed.isPresent()) {
+            logger.info("Replaying bill {} for idempotency key {}", replayed.get().getId(), key);
+            return replayed.get();
+        }
+
+        CompletableFuture<Long> ours = new CompletableFuture<>();
+        CompletableFuture<Long> running = inFlight.putIfAbsent(key, ours);
+        if (running != null) {
+            // Same key already being processed: wait for it instead of creating a second bill
+            logger.info("Waiting for in-flight request with idempotency key {}", key);
+            awaitBillId(running);
+            return findReplay(key, requestHash)
+                    .orElseThrow(() -> new RuntimeException("Original request for key " + key + " left no bill"));
+        }
+
+        try {
+            Bill bill = createOnce(key, billDto, requestHash);
+            ours.complete(bill.getId());
+            return bill;
+        } catch (RuntimeException e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ours);
+        }
+    }
+
+    private Optional<Bill> findReplay(String key, String requestHash) {
+        IdempotencyKey mapping = mappingsByKey.get(key);
+        if (mapping == null) {
+            mapping = idempotencyKeyRepository.findById(key).orElse(null);
+        }
+        if (mapping == null) {
+            return Optional.empty();
+        }
+
+        Optional<Bill> bill = isExpired(mapping) ? Optional.empty() : billService.getBillById(mapping.getBillId());
+        if (bill.isEmpty()) {
+            // Expired, or the bill was deleted since; the key no longer guards anything
+            mappingsByKey.remove(key);
+            idempotencyKeyRepository.deleteById(key);
+            return Optional.empty();
+        }
+        requireSameRequest(key, mapping, requestHash);
+        mappingsByKey.put(key, mapping);
+        return bill;
+    }
+
+    private Bill createOnce(String key, BillDto billDto, String requestHash) {
+        try {
+            IdempotencyKey[] stored = new IdempotencyKey[1];
+            Bill bill = transactionTemplate.execute(status -> {
+                Bill created = billService.createBillFromDTO(billDto);
+                stored[0] = idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(key, created.getId(), requestHash));
+                return created;
+            });
+            mappingsByKey.put(key, stored[0]);
+            return bill;
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored this key first; our bill was rolled back, so return theirs
+            mappingsByKey.remove(key);
+            entityManager.clear();
+            IdempotencyKey winner = idempotencyKeyRepository.findById(key).orElseThrow(() -> e);
+            requireSameRequest(key, winner, requestHash);
+            return loadBill(winner.getBillId());
+        }
+    }
+
+    /**
+     * Delete the mappings older than the TTL. Their keys may then be used for new bills.
+     */
+    @Scheduled(cron = "${billing.idempotency.purge-cron:0 20 * * * *}")
+    public int purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (purged > 0) {
+            logger.info("Purged {} idempotency keys older than {} hours", purged, ttlHours);
+        }
+        return purged;
+    }
+
+    private boolean isExpired(IdempotencyKey mapping) {
+        return mapping.getCreatedAt() != null
+                && mapping.getCreatedAt().isBefore(LocalDateTime.now().minusHours(ttlHours));
+    }
+
+    // Keys stored before request hashes were recorded have none and are not checked
+    private void requireSameRequest(String key, IdempotencyKey mapping, String requestHash) {
+        if (!mapping.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(
+                    "Idempotency key " + key + " was already used for a different request");
+        }
+    }
+
+    private String hash(BillDto billDto) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(billDto);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash bill request", e);
+        }
+    }
+
+    private Long awaitBillId(CompletableFuture<Long> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Original request failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private Bill loadBill(Long billId) {
+        return billService.getBillById(billId)
+                .orElseThrow(() -> new RuntimeException("Bill not found with id: " + billId));
+    }
+}
@@ -0,0 +1,198 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.InvoiceDto;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.utils.InvoiceTemplate;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bill PDFs for GET /api/bills/{id}/pdf.
+ *
+ * The invoice template is compiled once at startup. PAID bills no longer change, so their PDFs are
+ * kept in cache-dir and reprints are served straight from disk; other bills are rendered on every request.
+ * A bill keeps one cached file: rendering a new version deletes the old one. An hourly prune drops
+ * files not served for cache-max-age-days, then the least recently served ones until the directory
+ * is under cache-max-size-mb.
+ */
+@Service
+public class InvoicePdfService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoicePdfService.class);
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Value("${billing.pdf.template:classpath:templates/invoice.tpl}")
+    private Resource templateResource;
+
+    @Value("${billing.pdf.cache-dir:${java.io.tmpdir}/pahana-edu/invoices}")
+    private String cacheDirectory;
+
+    @Value("${billing.pdf.cache-max-size-mb:512}")
+    private long cacheMaxSizeMb;
+
+    @Value("${billing.pdf.cache-max-age-days:30}")
+    private long cacheMaxAgeDays;
+
+    private InvoiceTemplate template;
+    private Path cacheDir;
+
+    private static final class CachedFile {
+        private final Path path;
+        private final long lastServed;
+        private final long size;
+
+        private CachedFile(Path path, long lastServed, long size) {
+            this.path = path;
+            this.lastServed = lastServed;
+            this.size = size;
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        try (InputStream source = templateResource.getInputStream()) {
+            template = InvoiceTemplate.compile(source);
+        }
+        cacheDir = Paths.get(cacheDirectory);
+        Files.createDirectories(cacheDir);
+        logger.info("Invoice template compiled; PAID bill PDFs cached in {}", cacheDir.toAbsolutePath());
+        pruneCache();
+    }
+
+    /**
+     * Snapshot of everything printed on the bill's invoice, or empty if there is no such bill
+     */
+    @Transactional(readOnly = true)
+    public Optional<InvoiceDto> getInvoice(Long billId) {
+        return billRepository.findForInvoiceById(billId).map(InvoiceDto::from);
+    }
+
+    /**
+     * Write the invoice PDF to out, from the disk cache when the bill is PAID
+     */
+    public void writePdf(InvoiceDto invoice, OutputStream out) throws IOException {
+        if (!invoice.isPaid()) {
+            template.render(invoice, out);
+            return;
+        }
+
+        // The version changes with the bill, so a bill edited after payment never gets a stale PDF
+        Path cached = cacheDir.resolve("bill-" + invoice.getBillId() + "-" + invoice.getVersion() + ".pdf");
+        try {
+            writeCachedPdf(invoice, cached, out);
+        } catch (NoSuchFileException e) {
+            // pruneCache deleted the file between the checks; nothing was written to out yet
+            logger.debug("Cached invoice {} was pruned while being served; rendering it", cached);
+            template.render(invoice, out);
+        }
+    }
+
+    private void writeCachedPdf(InvoiceDto invoice, Path cached, OutputStream out) throws IOException {
+        if (!Files.exists(cached)) {
+            Path rendering = Files.createTempFile(cacheDir, "bill-" + invoice.getBillId() + "-", ".tmp");
+            try {
+                try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(rendering))) {
+                    template.render(invoice, file);
+                }
+                // Concurrent renders of the same bill produce the same bytes; the last move wins
+                Files.move(rendering, cached, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(rendering);
+            }
+            deleteOtherVersions(invoice.getBillId(), cached);
+        } else {
+            // The modification time records the last time the file was served (see pruneCache)
+            Files.setLastModifiedTime(cached, FileTime.from(Instant.now()));
+        }
+        Files.copy(cached, out);
+    }
+
+    /**
+     * Drop cached PDFs older than the age limit, then the least recently served ones until the
+     * cache fits the size limit
+     */
+    @Scheduled(fixedDelayString = "${billing.pdf.cache-prune-interval-ms:3600000}",
+            initialDelayString = "${billing.pdf.cache-prune-interval-ms:3600000}")
+    public void pruneCache() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> pdfs = Files.newDirectoryStream(cacheDir, "bill-*.pdf")) {
+            pdfs.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Could not list invoice cache {}: {}", cacheDir, e.getMessage());
+            return;
+        }
+
+        List<CachedFile> kept = new ArrayList<>();
+        long totalBytes = 0;
+        int deleted = 0;
+        Instant oldest = Instant.now().minus(Duration.ofDays(cacheMaxAgeDays));
+        for (Path file : files) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.lastModifiedTime().toInstant().isBefore(oldest)) {
+                    deleted += Files.deleteIfExists(file) ? 1 : 0;
+                } else {
+                    kept.add(new CachedFile(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+                    totalBytes += attributes.size();
+                }
+            } catch (IOException e) {
+                // Deleted by a concurrent render of the same bill
+            }
+        }
+
+        long maxBytes = cacheMaxSizeMb * 1024 * 1024;
+        kept.sort(Comparator.comparingLong(file -> file.lastServed));
+        for (CachedFile file : kept) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            try {
+                deleted += Files.deleteIfExists(file.path) ? 1 : 0;
+                totalBytes -= file.size;
+            } catch (IOException e) {
+                logger.warn("Could not delete cached invoice {}: {}", file.path, e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Pruned {} cached invoice PDFs; {} bytes left in {}", deleted, totalBytes, cacheDir);
+        }
+    }
+
+    private void deleteOtherVersions(Long billId, Path current) throws IOException {
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(cacheDir, "bill-" + billId + "-*.pdf")) {
+            for (Path version : versions) {
+                if (!version.equals(current)) {
+                    Files.deleteIfExists(version);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.pahanaedu.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.utils.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory copy of the item catalog, by id and by item code, in front of the items table.
+ *
+ * Entries are bounded (Caffeine's W-TinyLFU eviction keeps the items bills actually use) and
+ * expire after ttl-seconds, which also bounds how stale a node gets when another node changes an
+ * item. Callers always get their own detached copy, so nothing they do touches the cache.
+ *
+ * ItemService invalidates an item once the transaction that changed it completes, and so do bills
+ * that take or return its stock (see StockService): an entry reloaded after the commit already has
+ * the new stock, so adjusting cached entries in place could count the change twice. Hit, miss and
+ * eviction counts are published as the cache.* meters
+ * (/actuator/metrics/cache.gets?tag=cache:items-by-id).
+ */
+@Component
+public class ItemCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemCatalogCache.class);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${billing.catalog.cache.maximum-size:10000}")
+    private int maximumSize;
+
+    @Value("${billing.catalog.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${billing.catalog.cache.warm-up:true}")
+    private boolean warmUp;
+
+    private Cache<Long, Item> byId;
+    // Item codes never change (updateItem keeps them), so a code maps to one id until that item is deleted
+    private Cache<String, Long> idsByCode;
+
+    @PostConstruct
+    void init() {
+        byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        idsByCode = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "items-by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByCode, "items-by-code");
+    }
+
+    /**
+     * Fill the cache with the first maximum-size items once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUp) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        List<Item> items = itemRepository.findAll(PageRequest.of(0, maximumSize, Sort.by("id"))).getContent();
+        for (Item item : items) {
+            byId.put(item.getId(), copy(item));
+            idsByCode.put(item.getItemCode(), item.getId());
+        }
+        logger.info("Item catalog cache warmed up with {} items in {} ms", items.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    public Optional<Item> getById(Long id) {
+        Item item = byId.get(id, key -> itemRepository.findById(key).map(this::cacheable).orElse(null));
+        return Optional.ofNullable(item).map(ItemCatalogCache::copy);
+    }
+
+    public Optional<Item> getByCode(String itemCode) {
+        Long id = idsByCode.get(itemCode, code -> itemRepository.findByItemCode(code)
+                .map(item -> {
+                    byId.put(item.getId(), copy(item));
+                    return item.getId();
+                })
+                .orElse(null));
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Item> item = getById(id);
+        if (item.isEmpty() || !itemCode.equals(item.get().getItemCode())) {
+            // The item was deleted (and the code possibly reused); look the code up again
+            idsByCode.invalidate(itemCode);
+            return itemRepository.findByItemCode(itemCode).map(ItemCatalogCache::copy);
+        }
+        return item;
+    }
+
+    /**
+     * Copies of the items with the given ids, loading every missing one with a single query.
+     * Ids that do not exist are left out of the map.
+     */
+    public Map<Long, Item> getAllById(Collection<Long> ids) {
+        Map<Long, Item> cached = byId.getAll(ids, missing -> {
+            Map<Long, Item> loaded = new HashMap<>();
+            for (Item item : itemRepository.findAllById(new ArrayList<>(missing))) {
+                loaded.put(item.getId(), cacheable(item));
+            }
+            return loaded;
+        });
+        Map<Long, Item> items = new HashMap<>(cached.size() * 2);
+        cached.forEach((id, item) -> items.put(id, copy(item)));
+        return items;
+    }
+
+    /**
+     * Drop the item once the current transaction commits or rolls back (now, outside one).
+     * It is dropped straight away too, so nothing reads the old version in the meantime.
+     */
+    public void invalidate(Long id) {
+        byId.invalidate(id);
+        TransactionHooks.afterCompletion(() -> byId.invalidate(id));
+    }
+
+    /**
+     * Copy of a freshly loaded item for byId, noting its code on the way
+     */
+    private Item cacheable(Item item) {
+        idsByCode.put(item.getItemCode(), item.getId());
+        return copy(item);
+    }
+
+    private static Item copy(Item item) {
+        Item copy = new Item(item.getItemCode(), item.getName(), item.getUnitPrice(), item.getStockQuantity());
+        copy.setId(item.getId());
+        copy.setDescription(item.getDescription());
+        copy.setCategory(item.getCategory());
+        copy.setCreatedAt(item.getCreatedAt());
+        copy.setUpdatedAt(item.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,557 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.utils.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-memory trigram index over item names and codes for the item picker (GET /api/items/search),
+ * in place of LIKE '%term%' scans of the items table.
+ *
+ * Each item's normalized text ("name code", lower case, punctuation as spaces) is split into
+ * trigrams, and every trigram keeps the sorted list of items containing it. A query is answered
+ * from its own trigrams' lists only: items containing every trigram are checked for the query as
+ * a substring and ranked (name prefix, then word prefix, then elsewhere). Only when no item contains
+ * the query, items sharing at least two thirds of its trigrams are returned as fuzzy matches
+ * (typos), ranked by the share matched. Ties go to the shorter text, then the lower id.
+ *
+ * ItemService updates the index once item writes commit. The index is rebuilt from the items
+ * table at startup and every rebuild-interval-ms, which picks up changes made by other nodes or
+ * in SQL and drops the space held by replaced entries.
+ */
+@Component
+public class ItemSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    // Items matching this share of the query's trigrams are returned when nothing contains the query
+    private static final double FUZZY_MATCH_SHARE = 2.0 / 3;
+    private static final int MIN_QUERY_LENGTH = 2;
+
+    // Exact match scores
+    private static final int NAME_PREFIX = 4;
+    private static final int WORD_PREFIX = 3;
+    private static final int SUBSTRING = 2;
+    // Marks the extra trigram for the first two characters of a name; normalized text has no such character
+    private static final char NAME_START = '\u0001';
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble((Hit hit) -> hit.score)
+            .thenComparing(Comparator.comparingInt((Hit hit) -> hit.length).reversed())
+            .thenComparing(Comparator.comparingLong((Hit hit) -> hit.id).reversed());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    // Changes made while a rebuild reads the table, replayed onto the new segment before it is swapped in
+    private List<Consumer<Segment>> changesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${billing.catalog.search.rebuild-interval-ms:600000}",
+            fixedDelayString = "${billing.catalog.search.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // The current index keeps serving; the next run retries
+            logger.error("Item search index rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replace the index with one built from the items table; returns the number of items indexed
+     */
+    public synchronized int rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment rebuilt = new Segment();
+        boolean built = false;
+        try {
+            List<Document> documents = new ArrayList<>();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT id, item_code, name FROM items");
+                statement.setFetchSize(500);
+                return statement;
+            }, rs -> {
+                documents.add(new Document(rs.getLong("id"), text(rs.getString("item_code"), rs.getString("name"))));
+            });
+            // Ranking order within a score: shortest text, then lowest id
+            documents.sort(Comparator.comparingInt((Document document) -> document.text.length())
+                    .thenComparingLong(document -> document.id));
+            for (Document document : documents) {
+                rebuilt.put(document.id, document.text);
+            }
+            rebuilt.markRanked();
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                    segment = rebuilt;
+                }
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        logger.info("Item search index built with {} items in {} ms", rebuilt.size(),
+                System.currentTimeMillis() - started);
+        return rebuilt.size();
+    }
+
+    /**
+     * Index the item's current name and code once the current transaction commits
+     */
+    public void itemSaved(Item item) {
+        Long id = item.getId();
+        String text = text(item.getItemCode(), item.getName());
+        TransactionHooks.afterCommit(() -> change(segment -> segment.put(id, text)));
+    }
+
+    /**
+     * Drop the item once the current transaction commits
+     */
+    public void itemDeleted(Long id) {
+        TransactionHooks.afterCommit(() -> change(segment -> segment.remove(id)));
+    }
+
+    /**
+     * Ids of the best matches for the query, best first; empty for queries shorter than two characters
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.length() < MIN_QUERY_LENGTH || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(normalized, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void change(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lower case letters and digits, every other run of characters folded into one space
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        return length > 0 && normalized.charAt(length - 1) == ' '
+                ? normalized.substring(0, length - 1)
+                : normalized.toString();
+    }
+
+    /**
+     * Indexed text of an item: leading space so the first word starts like every other (" ab"
+     * marks a word prefix), then the name and the code
+     */
+    static String text(String itemCode, String name) {
+        return " " + normalize(name) + " " + normalize(itemCode);
+    }
+
+    /**
+     * Trigram of the first two characters of a name, kept apart from the text's own trigrams
+     */
+    static long nameStart(char first, char second) {
+        return (long) NAME_START << 32 | (long) first << 16 | second;
+    }
+
+    /**
+     * Distinct trigrams of the text, each packed into a long (three 16-bit chars)
+     */
+    static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static final class Document {
+        private final long id;
+        private final String text;
+
+        private Document(long id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private static final class Hit {
+        private final long id;
+        private final double score;
+        private final int length;
+
+        private Hit(long id, double score, int length) {
+            this.id = id;
+            this.score = score;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Items of one build: documents are numbered in insertion order, so every posting list stays
+     * sorted by appending. A changed item gets a new document and its old one is marked deleted.
+     *
+     * A rebuild adds its items shortest text first (then by id), which is ranking order within a
+     * score. In that part a scan can stop as soon as the top is full and the next document could
+     * not beat it even at the best score left; items indexed since are always scanned.
+     */
+    private static final class Segment {
+
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private final Map<Long, Integer> docsById = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+        private long[] ids = new long[1024];
+        private String[] texts = new String[1024];
+        private int[] lengths = new int[1024];
+        private int docCount;
+        // Documents below this were added by a rebuild, in ranking order
+        private int rankedDocs;
+
+        int size() {
+            return docsById.size();
+        }
+
+        void put(long id, String text) {
+            remove(id);
+            int doc = docCount++;
+            if (doc == ids.length) {
+                ids = Arrays.copyOf(ids, doc * 2);
+                texts = Arrays.copyOf(texts, doc * 2);
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            ids[doc] = id;
+            texts[doc] = text;
+            lengths[doc] = text.length();
+            docsById.put(id, doc);
+            for (long gram : trigrams(text)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+            }
+            if (text.length() >= 3) {
+                postings.computeIfAbsent(nameStart(text.charAt(1), text.charAt(2)), key -> new Postings()).add(doc);
+            }
+        }
+
+        void remove(long id) {
+            Integer doc = docsById.remove(id);
+            if (doc != null) {
+                deleted.set(doc);
+                texts[doc] = null;
+            }
+        }
+
+        void markRanked() {
+            rankedDocs = docCount;
+        }
+
+        List<Long> search(String query, int limit) {
+            // Two-character queries match word prefixes only: their single trigram is " ab"
+            String needle = query.length() < 3 ? " " + query : query;
+            long[] grams = trigrams(needle);
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+
+            // Names starting with the query rank first, so they are collected first
+            long[] prefixGrams = Arrays.copyOf(grams, grams.length + 1);
+            prefixGrams[grams.length] = nameStart(query.charAt(0), query.charAt(1));
+            scan(lists(prefixGrams), NAME_PREFIX, text -> text.startsWith(query, 1) ? NAME_PREFIX : 0, best, limit);
+
+            // Texts start with a space: the query at 1 is a prefix of the name (counted above),
+            // after a space a word prefix. A text can hold the query inside one word and at the start of
+            // a later one ("subclass class"), so every occurrence is checked before settling on a substring
+            scan(lists(grams), WORD_PREFIX, text -> {
+                int at = text.indexOf(needle);
+                if (at < 0) {
+                    return 0;
+                }
+                for (; at >= 0; at = text.indexOf(needle, at + 1)) {
+                    int start = needle.charAt(0) == ' ' ? at + 1 : at;
+                    if (start == 1) {
+                        return 0;
+                    }
+                    if (text.charAt(start - 1) == ' ') {
+                        return WORD_PREFIX;
+                    }
+                }
+                return SUBSTRING;
+            }, best, limit);
+
+            if (best.isEmpty() && grams.length >= 3) {
+                addFuzzyMatches(lists(grams), best, limit);
+            }
+
+            List<Long> ranked = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                ranked.add(best.poll().id);
+            }
+            Collections.reverse(ranked);
+            return ranked;
+        }
+
+        /**
+         * Offers the documents in every list that score above 0, none scoring above maxScore.
+         * Candidates come from the rarest list and are checked against the others.
+         */
+        private void scan(Postings[] lists, int maxScore, ToIntFunction<String> scorer,
+                          PriorityQueue<Hit> best, int limit) {
+            Postings rarest = lists[0];
+            Cursor[] others = cursors(lists, 1, lists.length);
+            int i = 0;
+            while (i < rarest.size) {
+                int doc = rarest.docs[i++];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                if (doc < rankedDocs && best.size() == limit && !ranksAbove(maxScore, lengths[doc], ids[doc], best.peek())) {
+                    // Later ranked documents are no shorter, so none of them can make it either
+                    i = rarest.indexOf(rankedDocs, i);
+                    continue;
+                }
+                if (!containAll(others, doc)) {
+                    continue;
+                }
+                int score = scorer.applyAsInt(texts[doc]);
+                if (score > 0) {
+                    offer(best, ids[doc], score, lengths[doc], limit);
+                }
+            }
+        }
+
+        /**
+         * Items sharing at least FUZZY_MATCH_SHARE of the trigrams. Any such item is in one of the
+         * (lists - required + 1) rarest lists, so only those are scanned.
+         */
+        private void addFuzzyMatches(Postings[] lists, PriorityQueue<Hit> best, int limit) {
+            int required = (int) Math.ceil(lists.length * FUZZY_MATCH_SHARE);
+            int scanned = lists.length - required + 1;
+            for (int i = 0; i < scanned; i++) {
+                Postings list = lists[i];
+                Cursor[] earlier = cursors(lists, 0, i);
+                Cursor[] later = cursors(lists, i + 1, lists.length);
+                for (int j = 0; j < list.size; j++) {
+                    int doc = list.docs[j];
+                    // Counted once, from the first scanned list that has it
+                    if (deleted.get(doc) || containAny(earlier, doc)) {
+                        continue;
+                    }
+                    int matched = 1 + countIn(later, doc, required - 1);
+                    if (matched >= required) {
+                        offer(best, ids[doc], (double) matched / lists.length, lengths[doc], limit);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Posting lists of the trigrams, rarest first: candidates come from the shortest lists
+         * and fail fast on the next ones
+         */
+        private Postings[] lists(long[] grams) {
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.getOrDefault(grams[i], Postings.EMPTY);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            return lists;
+        }
+
+        private static Cursor[] cursors(Postings[] lists, int from, int to) {
+            Cursor[] cursors = new Cursor[to - from];
+            for (int i = from; i < to; i++) {
+                cursors[i - from] = new Cursor(lists[i]);
+            }
+            return cursors;
+        }
+
+        private static boolean containAll(Cursor[] cursors, int doc) {
+            for (Cursor cursor : cursors) {
+                if (!cursor.advanceTo(doc)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean containAny(Cursor[] cursors, int doc) {
+            for (Cursor cursor : cursors) {
+                if (cursor.advanceTo(doc)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Number of lists containing the document, stopping early once it cannot reach needed.
+         * Cursors left behind catch up on a later probe.
+         */
+        private static int countIn(Cursor[] cursors, int doc, int needed) {
+            int count = 0;
+            for (int i = 0; i < cursors.length && count + cursors.length - i >= needed; i++) {
+                if (cursors[i].advanceTo(doc)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static void offer(PriorityQueue<Hit> best, long id, double score, int length, int limit) {
+            // Most candidates of a common word cannot make the top; they are dropped without allocating
+            if (best.size() == limit && !ranksAbove(score, length, id, best.peek())) {
+                return;
+            }
+            best.offer(new Hit(id, score, length));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        private static boolean ranksAbove(double score, int length, long id, Hit other) {
+            if (score != other.score) {
+                return score > other.score;
+            }
+            if (length != other.length) {
+                return length < other.length;
+            }
+            return id < other.id;
+        }
+    }
+
+    /**
+     * Growable sorted list of document numbers
+     */
+    private static final class Postings {
+
+        static final Postings EMPTY = new Postings();
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        /**
+         * Index of the first entry at or after from that is not below doc
+         */
+        int indexOf(int doc, int from) {
+            int found = Arrays.binarySearch(docs, from, size, doc);
+            return found >= 0 ? found : -found - 1;
+        }
+
+    }
+
+    /**
+     * Position in a posting list for documents probed in ascending order. Each probe gallops
+     * forward from the last one, so walking a whole list costs about one pass over it.
+     */
+    private static final class Cursor {
+
+        private final Postings list;
+        private int position;
+
+        private Cursor(Postings list) {
+            this.list = list;
+        }
+
+        boolean advanceTo(int doc) {
+            int[] docs = list.docs;
+            int size = list.size;
+            // Every entry before low is smaller than doc
+            int low = position;
+            int high = low;
+            int step = 1;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high = low + step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(docs, low, Math.min(high + 1, size), doc);
+            position = found >= 0 ? found : -found - 1;
+            return found >= 0;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.pahanaedu.service;
 
 import com.pahanaedu.entity.Item;
+import com.pahanaedu.exception.GlobalExceptionHandler.BusinessException;
 import com.pahanaedu.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -16,16 +20,49 @@ public class ItemService {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private DocumentNumberAllocator documentNumberAllocator;
+
+    @Autowired
+    private StockReservationLedger stockReservationLedger;
+
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Value("${billing.catalog.search.default-limit:10}")
+    private int defaultSearchLimit;
+
+    @Value("${billing.catalog.search.max-limit:100}")
+    private int maxSearchLimit;
+
     public List<Item> getAllItems() {
         return itemRepository.findAll();
     }
 
     public Optional<Item> getItemById(Long id) {
-        return itemRepository.findById(id);
+        return itemCatalogCache.getById(id);
     }
 
     public Optional<Item> getItemByCode(String itemCode) {
-        return itemRepository.findByItemCode(itemCode);
+        return itemCatalogCache.getByCode(itemCode);
+    }
+
+    /**
+     * Best matches for the query on item name and code, best first (see ItemSearchIndex)
+     */
+    @Transactional(readOnly = true)
+    public List<Item> searchItems(String query, Integer limit) {
+        int resolvedLimit = limit == null || limit <= 0 ? defaultSearchLimit : Math.min(limit, maxSearchLimit);
+        List<Long> ids = itemSearchIndex.search(query, resolvedLimit);
+        Map<Long, Item> items = itemCatalogCache.getAllById(ids);
+        // An item deleted since it was indexed is left out
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     public List<Item> getItemsByCategory(String category) {
@@ -36,7 +73,10 @@ public class ItemService {
         if (item.getItemCode() == null || item.getItemCode().isEmpty()) {
             item.setItemCode(generateItemCode());
         }
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemCatalogCache.invalidate(saved.getId());
+        itemSearchIndex.itemSaved(saved);
+        return saved;
     }
 
     public Item updateItem(Long id, Item itemDetails) {
@@ -47,17 +87,34 @@ public class ItemService {
         item.setDescription(itemDetails.getDescription());
         item.setUnitPrice(itemDetails.getUnitPrice());
         item.setCategory(itemDetails.getCategory());
-        item.setStockQuantity(itemDetails.getStockQuantity());
+        Item saved = itemRepository.save(item);
 
-        return itemRepository.save(item);
+        // The requested stock becomes a change relative to the value read, applied in SQL: bills and
+        // the stock ledger flush update the same row concurrently, and an absolute write would undo them
+        if (item.getStockQuantity() != null && itemDetails.getStockQuantity() != null) {
+            int delta = itemDetails.getStockQuantity() - item.getStockQuantity();
+            if (delta != 0) {
+                if (itemRepository.adjustStockQuantity(id, delta) == 0) {
+                    throw new BusinessException("Stock of item " + id + " cannot go below the units already reserved");
+                }
+                if (stockReservationLedger.isEnabled()) {
+                    stockReservationLedger.stockChanged(id, delta);
+                }
+                saved.setStockQuantity(itemRepository.findStockQuantityById(id));
+            }
+        }
+        itemCatalogCache.invalidate(id);
+        itemSearchIndex.itemSaved(saved);
+        return saved;
     }
 
     public void deleteItem(Long id) {
         itemRepository.deleteById(id);
+        itemCatalogCache.invalidate(id);
+        itemSearchIndex.itemDeleted(id);
     }
 
     private String generateItemCode() {
-        long count = itemRepository.count();
-        return String.format("ITM%06d", count + 1);
+        return documentNumberAllocator.next(DocumentNumberAllocator.DocumentType.ITEM);
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.OverdueSweepResultDto;
+import com.pahanaedu.entity.Bill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves PENDING bills whose due date has passed to OVERDUE.
+ *
+ * Works in plain SQL in chunks of up to chunk-size candidates, paged by id (id > last id of the
+ * previous chunk, ORDER BY id LIMIT chunk-size), one short transaction per chunk, so only the rows of
+ * the current chunk are locked and gaps in the id sequence cost nothing. Each chunk locks its
+ * candidate rows, updates them with a single UPDATE and moves their amounts from PENDING to OVERDUE
+ * in daily_bill_rollup. No entities are loaded.
+ */
+@Service
+public class OverdueBillSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueBillSweeper.class);
+
+    private static final String CANDIDATE_PREDICATE = "status = 'PENDING' AND due_date < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @Autowired
+    private CustomerStatementService customerStatementService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${billing.overdue.chunk-size:5000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private static final class Chunk {
+        private final long lastId;
+        private final int updated;
+
+        private Chunk(long lastId, int updated) {
+            this.lastId = lastId;
+            this.updated = updated;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${billing.overdue.cron:0 5 0 * * *}")
+    public void scheduledSweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Mark every PENDING bill due before today as OVERDUE
+     */
+    public OverdueSweepResultDto sweep(LocalDate today) {
+        long start = System.currentTimeMillis();
+        Date cutoff = Date.valueOf(today);
+        OverdueSweepResultDto result = new OverdueSweepResultDto();
+
+        long afterId = 0;
+        while (true) {
+            long chunkStart = System.currentTimeMillis();
+            Chunk chunk = sweepChunk(cutoff, afterId);
+            if (chunk == null) {
+                break;
+            }
+            long chunkMs = System.currentTimeMillis() - chunkStart;
+            result.recordChunk(afterId + 1, chunk.lastId, chunk.updated, chunkMs);
+            logger.info("Overdue sweep ids {}-{}: {} bills in {} ms", afterId + 1, chunk.lastId, chunk.updated, chunkMs);
+            afterId = chunk.lastId;
+        }
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        logger.info("Overdue sweep: {} bills marked OVERDUE in {} chunks, {} ms (longest chunk {} ms)",
+                result.getBillsUpdated(), result.getChunks(), result.getElapsedMs(), result.getLongestChunkMs());
+        return result;
+    }
+
+    /**
+     * Mark the next chunk-size candidates after afterId, or return null when there are none left
+     */
+    private Chunk sweepChunk(Date cutoff, long afterId) {
+        return transactionTemplate.execute(status -> {
+            // Lock the chunk's candidates so the rollup delta matches exactly the rows updated below
+            List<Long> ids = new ArrayList<>();
+            List<DailyBillRollupService.Snapshot> candidates = jdbcTemplate.query(
+                    "SELECT id, bill_date, subtotal, tax_amount, total_amount FROM bills WHERE " + CANDIDATE_PREDICATE
+                            + " AND id > ? ORDER BY id LIMIT ? FOR UPDATE",
+                    (rs, rowNum) -> {
+                        ids.add(rs.getLong("id"));
+                        return DailyBillRollupService.Snapshot.of(rs.getDate("bill_date").toLocalDate(),
+                                Bill.BillStatus.PENDING, rs.getBigDecimal("subtotal"),
+                                rs.getBigDecimal("tax_amount"), rs.getBigDecimal("total_amount"));
+                    },
+                    cutoff, afterId, chunkSize);
+            if (candidates.isEmpty()) {
+                return null;
+            }
+
+            // Every candidate in (afterId, lastId] was selected and locked above
+            long lastId = ids.get(ids.size() - 1);
+            int updated = jdbcTemplate.update(
+                    "UPDATE bills SET status = 'OVERDUE', updated_at = CURRENT_TIMESTAMP WHERE " + CANDIDATE_PREDICATE
+                            + " AND id > ? AND id <= ?",
+                    cutoff, afterId, lastId);
+            dailyBillRollupService.billsMoved(candidates, Bill.BillStatus.OVERDUE);
+            // Chunks span many customers; statements list bill status, so drop them all
+            customerStatementService.invalidateAll();
+            return new Chunk(lastId, updated);
+        });
+    }
+}
@@ -0,0 +1,136 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.PricingRuleDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.exception.GlobalExceptionHandler.BusinessException;
+import com.pahanaedu.repository.CustomerRepository;
+import com.pahanaedu.utils.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tax and discount rules for bill totals, kept in pricing_rules.
+ *
+ * The rules are compiled into an immutable PricingRules once per change and published through a
+ * volatile field, so pricing a bill never reads the table or takes a lock, and a bill is always
+ * priced by one complete rule set. Changes made through this service are recompiled after commit;
+ * call reload after editing the table by hand (or on other application instances).
+ */
+@Service
+public class PricingRuleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingRuleService.class);
+
+    private static final String SELECT_RULES =
+            "SELECT id, rule_type, category, min_units_consumed, rate, effective_from, effective_to " +
+            "FROM pricing_rules ORDER BY id";
+
+    private static final RowMapper<PricingRuleDto> RULE_MAPPER = (rs, rowNum) -> {
+        PricingRuleDto rule = new PricingRuleDto(
+                PricingRuleDto.RuleType.valueOf(rs.getString("rule_type")),
+                rs.getString("category"),
+                rs.getBigDecimal("min_units_consumed"),
+                rs.getBigDecimal("rate"),
+                rs.getObject("effective_from", LocalDate.class),
+                rs.getObject("effective_to", LocalDate.class));
+        rule.setId(rs.getLong("id"));
+        return rule;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${billing.pricing.default-tax-rate:0.10}")
+    private BigDecimal defaultTaxRate;
+
+    private volatile PricingRules rules;
+
+    /**
+     * Set the bill's subtotal, discount, tax and total from its lines under the current rules
+     */
+    public void priceBill(Bill bill) {
+        PricingRules current = current();
+        BigDecimal unitsConsumed = current.usesUnitsConsumed(bill.getBillDate()) && bill.getCustomerId() != null
+                ? customerRepository.findUnitsConsumedById(bill.getCustomerId()).orElse(null)
+                : null;
+        current.apply(bill, unitsConsumed);
+    }
+
+    public PricingRules current() {
+        PricingRules current = rules;
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Recompile the rules from pricing_rules and swap them in
+     */
+    public synchronized PricingRules reload() {
+        List<PricingRuleDto> stored = getRules();
+        PricingRules compiled = PricingRules.compile(stored, defaultTaxRate);
+        rules = compiled;
+        logger.info("Loaded {} pricing rules", compiled.getRuleCount());
+        return compiled;
+    }
+
+    public List<PricingRuleDto> getRules() {
+        return jdbcTemplate.query(SELECT_RULES, RULE_MAPPER);
+    }
+
+    @Transactional
+    public PricingRuleDto addRule(PricingRuleDto rule) {
+        if (rule.getCategory() != null && rule.getCategory().isBlank()) {
+            rule.setCategory(null);
+        }
+        if (rule.getEffectiveFrom() != null && rule.getEffectiveTo() != null
+                && rule.getEffectiveTo().isBefore(rule.getEffectiveFrom())) {
+            throw new BusinessException("Effective to date cannot be before effective from date");
+        }
+        if (rule.getRuleType() == PricingRuleDto.RuleType.TAX && rule.getMinUnitsConsumed() != null) {
+            throw new BusinessException("Minimum units consumed only applies to DISCOUNT rules");
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO pricing_rules (rule_type, category, min_units_consumed, rate, effective_from, effective_to) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", new String[]{"id"});
+            ps.setString(1, rule.getRuleType().name());
+            ps.setString(2, rule.getCategory());
+            ps.setBigDecimal(3, rule.getMinUnitsConsumed());
+            ps.setBigDecimal(4, rule.getRate());
+            ps.setDate(5, rule.getEffectiveFrom() != null ? Date.valueOf(rule.getEffectiveFrom()) : null);
+            ps.setDate(6, rule.getEffectiveTo() != null ? Date.valueOf(rule.getEffectiveTo()) : null);
+            return ps;
+        }, keyHolder);
+        rule.setId(keyHolder.getKey().longValue());
+
+        TransactionHooks.afterCommit(this::reload);
+        return rule;
+    }
+
+    @Transactional
+    public boolean deleteRule(Long id) {
+        boolean deleted = jdbcTemplate.update("DELETE FROM pricing_rules WHERE id = ?", id) > 0;
+        if (deleted) {
+            TransactionHooks.afterCommit(this::reload);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,289 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.PricingRuleDto;
+import com.pahanaedu.dto.PricingRuleDto.RuleType;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.utils.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * An immutable, precompiled set of tax and discount rules.
+ *
+ * Effective dates are resolved at compile time into non-overlapping periods, and each period into
+ * one schedule per customer tier (a tier starts at every distinct DISCOUNT minUnitsConsumed). A
+ * schedule maps an item category straight to a bucket holding its discount and tax rate, so pricing
+ * a bill is a binary search for the period, a scan of the tiers, and one map lookup per line.
+ * Lines are summed per bucket and every rate is applied once per bucket, all in fixed-point cents.
+ *
+ * Precedence: a category rule beats an every-category rule; among TAX rules of the same kind the
+ * one that took effect last wins; among DISCOUNT rules the highest tier the customer reaches wins,
+ * an every-category rule in a higher tier replacing category rules of lower tiers.
+ */
+public final class PricingRules {
+
+    // Sub-cent line totals, discounts and taxes are rounded half up to whole cents
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    // Latest effectiveFrom last (open start first); equal dates keep their original order
+    private static final Comparator<PricingRuleDto> PRECEDENCE = Comparator.comparing(
+            PricingRuleDto::getEffectiveFrom, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final int ruleCount;
+    // periods[i] applies to bills dated from periodStarts[i] (epoch day) up to the next start
+    private final long[] periodStarts;
+    private final Period[] periods;
+
+    private PricingRules(int ruleCount, long[] periodStarts, Period[] periods) {
+        this.ruleCount = ruleCount;
+        this.periodStarts = periodStarts;
+        this.periods = periods;
+    }
+
+    /**
+     * Compile the rules; defaultTaxRate applies to bills no every-category TAX rule covers.
+     */
+    public static PricingRules compile(Collection<PricingRuleDto> rules, BigDecimal defaultTaxRate) {
+        List<PricingRuleDto> ordered = new ArrayList<>(rules);
+        ordered.sort(PRECEDENCE);
+
+        TreeSet<Long> boundaries = new TreeSet<>();
+        boundaries.add(Long.MIN_VALUE);
+        for (PricingRuleDto rule : ordered) {
+            if (rule.getEffectiveFrom() != null) {
+                boundaries.add(rule.getEffectiveFrom().toEpochDay());
+            }
+            if (rule.getEffectiveTo() != null) {
+                boundaries.add(rule.getEffectiveTo().toEpochDay() + 1);
+            }
+        }
+
+        long[] starts = new long[boundaries.size()];
+        Period[] periods = new Period[boundaries.size()];
+        int index = 0;
+        for (long start : boundaries) {
+            List<PricingRuleDto> active = new ArrayList<>();
+            for (PricingRuleDto rule : ordered) {
+                if (isActive(rule, start)) {
+                    active.add(rule);
+                }
+            }
+            starts[index] = start;
+            periods[index] = Period.compile(active, defaultTaxRate);
+            index++;
+        }
+        return new PricingRules(rules.size(), starts, periods);
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Whether pricing a bill dated billDate depends on the customer's units consumed
+     */
+    public boolean usesUnitsConsumed(LocalDate billDate) {
+        return period(billDate).thresholds.length > 0;
+    }
+
+    /**
+     * Set the bill's subtotal, discount, tax and total from its lines' total prices and item categories.
+     * unitsConsumed may be null when usesUnitsConsumed is false.
+     */
+    public void apply(Bill bill, BigDecimal unitsConsumed) {
+        Schedule schedule = period(bill.getBillDate()).schedule(unitsConsumed);
+
+        // Fixed-point cents from here on; BigDecimal again only when setting the bill's fields
+        long subtotal = 0;
+        long[] sums = new long[schedule.taxRates.length];
+        for (BillItem line : bill.getBillItems()) {
+            BigDecimal lineTotal = line.getTotalPrice();
+            if (lineTotal == null) {
+                continue;
+            }
+            long cents = Money.of(lineTotal, ROUNDING);
+            subtotal = Money.add(subtotal, cents);
+            Item item = line.getItem();
+            int bucket = schedule.bucket(item != null ? item.getCategory() : null);
+            sums[bucket] = Money.add(sums[bucket], cents);
+        }
+
+        long discount = 0;
+        long tax = 0;
+        for (int bucket = 0; bucket < sums.length; bucket++) {
+            long sum = sums[bucket];
+            if (sum == 0) {
+                continue;
+            }
+            if (schedule.discountRates[bucket] != 0) {
+                long bucketDiscount = Money.applyRate(sum, schedule.discountRates[bucket], ROUNDING);
+                discount = Money.add(discount, bucketDiscount);
+                sum = Money.subtract(sum, bucketDiscount);
+            }
+            tax = Money.add(tax, Money.applyRate(sum, schedule.taxRates[bucket], ROUNDING));
+        }
+
+        bill.setSubtotal(Money.toBigDecimal(subtotal));
+        bill.setDiscountAmount(Money.toBigDecimal(discount));
+        bill.setTaxAmount(Money.toBigDecimal(tax));
+        bill.setTotalAmount(Money.toBigDecimal(Money.add(Money.subtract(subtotal, discount), tax)));
+    }
+
+    private Period period(LocalDate billDate) {
+        if (billDate == null) {
+            return periods[periods.length - 1];
+        }
+        int index = Arrays.binarySearch(periodStarts, billDate.toEpochDay());
+        return periods[index >= 0 ? index : -index - 2];
+    }
+
+    private static boolean isActive(PricingRuleDto rule, long day) {
+        return (rule.getEffectiveFrom() == null || rule.getEffectiveFrom().toEpochDay() <= day)
+                && (rule.getEffectiveTo() == null || rule.getEffectiveTo().toEpochDay() >= day);
+    }
+
+    private static BigDecimal minUnits(PricingRuleDto rule) {
+        return rule.getMinUnitsConsumed() != null && rule.getMinUnitsConsumed().signum() > 0
+                ? rule.getMinUnitsConsumed()
+                : BigDecimal.ZERO;
+    }
+
+    /**
+     * Rules in force for a date range: one schedule below every tier and one per tier threshold
+     */
+    private static final class Period {
+
+        private final BigDecimal[] thresholds;
+        // schedules[0] is for customers below every threshold, schedules[i + 1] from thresholds[i] on
+        private final Schedule[] schedules;
+
+        private Period(BigDecimal[] thresholds, Schedule[] schedules) {
+            this.thresholds = thresholds;
+            this.schedules = schedules;
+        }
+
+        static Period compile(List<PricingRuleDto> active, BigDecimal defaultTaxRate) {
+            BigDecimal defaultTax = defaultTaxRate;
+            Map<String, BigDecimal> taxByCategory = new HashMap<>();
+            List<PricingRuleDto> discounts = new ArrayList<>();
+            for (PricingRuleDto rule : active) {
+                if (rule.getRuleType() == RuleType.DISCOUNT) {
+                    discounts.add(rule);
+                } else if (rule.getCategory() == null) {
+                    defaultTax = rule.getRate();
+                } else {
+                    taxByCategory.put(rule.getCategory(), rule.getRate());
+                }
+            }
+
+            // Lowest tier first; in a tier every-category rules come before category rules
+            discounts.sort(Comparator.comparing(PricingRules::minUnits)
+                    .thenComparing(rule -> rule.getCategory() != null));
+
+            List<BigDecimal> thresholds = new ArrayList<>();
+            List<Schedule> schedules = new ArrayList<>();
+            BigDecimal defaultDiscount = BigDecimal.ZERO;
+            Map<String, BigDecimal> discountByCategory = new HashMap<>();
+            BigDecimal tier = BigDecimal.ZERO;
+            for (PricingRuleDto rule : discounts) {
+                BigDecimal min = minUnits(rule);
+                if (min.compareTo(tier) > 0) {
+                    schedules.add(Schedule.compile(taxByCategory, defaultTax, discountByCategory, defaultDiscount));
+                    thresholds.add(min);
+                    tier = min;
+                }
+                if (rule.getCategory() == null) {
+                    defaultDiscount = rule.getRate();
+                    discountByCategory.clear();
+                } else {
+                    discountByCategory.put(rule.getCategory(), rule.getRate());
+                }
+            }
+            schedules.add(Schedule.compile(taxByCategory, defaultTax, discountByCategory, defaultDiscount));
+
+            return new Period(thresholds.toArray(new BigDecimal[0]), schedules.toArray(new Schedule[0]));
+        }
+
+        Schedule schedule(BigDecimal unitsConsumed) {
+            if (unitsConsumed != null) {
+                for (int i = thresholds.length - 1; i >= 0; i--) {
+                    if (unitsConsumed.compareTo(thresholds[i]) >= 0) {
+                        return schedules[i + 1];
+                    }
+                }
+            }
+            return schedules[0];
+        }
+    }
+
+    /**
+     * Discount and tax rate per bucket, and the bucket of each category that has its own rates
+     */
+    private static final class Schedule {
+
+        private final Map<String, Integer> bucketByCategory;
+        // Rates in millionths (see Money)
+        private final long[] discountRates;
+        private final long[] taxRates;
+
+        private Schedule(Map<String, Integer> bucketByCategory, long[] discountRates, long[] taxRates) {
+            this.bucketByCategory = bucketByCategory;
+            this.discountRates = discountRates;
+            this.taxRates = taxRates;
+        }
+
+        static Schedule compile(Map<String, BigDecimal> taxByCategory, BigDecimal defaultTax,
+                                Map<String, BigDecimal> discountByCategory, BigDecimal defaultDiscount) {
+            // Bucket 0 holds every category without rates of its own; categories sharing rates share a bucket
+            Map<List<BigDecimal>, Integer> buckets = new LinkedHashMap<>();
+            buckets.put(List.of(normalize(defaultDiscount), normalize(defaultTax)), 0);
+
+            Map<String, Integer> bucketByCategory = new HashMap<>();
+            TreeSet<String> categories = new TreeSet<>(taxByCategory.keySet());
+            categories.addAll(discountByCategory.keySet());
+            for (String category : categories) {
+                List<BigDecimal> rates = List.of(
+                        normalize(discountByCategory.getOrDefault(category, defaultDiscount)),
+                        normalize(taxByCategory.getOrDefault(category, defaultTax)));
+                Integer bucket = buckets.computeIfAbsent(rates, key -> buckets.size());
+                if (bucket != 0) {
+                    bucketByCategory.put(category, bucket);
+                }
+            }
+
+            long[] discountRates = new long[buckets.size()];
+            long[] taxRates = new long[buckets.size()];
+            buckets.forEach((rates, bucket) -> {
+                discountRates[bucket] = Money.rate(rates.get(0), ROUNDING);
+                taxRates[bucket] = Money.rate(rates.get(1), ROUNDING);
+            });
+            return new Schedule(bucketByCategory, discountRates, taxRates);
+        }
+
+        int bucket(String category) {
+            if (category == null) {
+                return 0;
+            }
+            Integer bucket = bucketByCategory.get(category);
+            return bucket != null ? bucket : 0;
+        }
+
+        private static BigDecimal normalize(BigDecimal rate) {
+            return Objects.requireNonNull(rate, "rate").stripTrailingZeros();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.SalesReportDto;
+import com.pahanaedu.dto.SalesTotalsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    /**
+     * Build the sales report for a date range (inclusive) from the daily rollup: at most
+     * one row per day and status, however many bills there are
+     */
+    public SalesReportDto getSalesReport(LocalDate startDate, LocalDate endDate) {
+        logger.info("Generating sales report from {} to {}", startDate, endDate);
+
+        SalesReportDto report = new SalesReportDto(startDate, endDate);
+
+        List<SalesTotalsDto> daily = dailyBillRollupService.findTotalsByDateAndStatus(startDate, endDate);
+        for (SalesTotalsDto totals : daily) {
+            applyStatusTotals(report, totals);
+        }
+
+        report.setDaily(daily);
+        return report;
+    }
+
+    private void applyStatusTotals(SalesReportDto report, SalesTotalsDto totals) {
+        report.setTotalBills(report.getTotalBills() + totals.getBillCount());
+        report.setTotalSales(report.getTotalSales().add(totals.getTotalAmount()));
+        report.setSubtotal(report.getSubtotal().add(totals.getSubtotal()));
+        report.setTaxAmount(report.getTaxAmount().add(totals.getTaxAmount()));
+
+        if (totals.getStatus() == null) {
+            return;
+        }
+
+        BigDecimal amount = totals.getTotalAmount();
+        switch (totals.getStatus()) {
+            case PAID -> {
+                report.setPaidBills(report.getPaidBills() + totals.getBillCount());
+                report.setPaidAmount(report.getPaidAmount().add(amount));
+            }
+            case PENDING -> {
+                report.setPendingBills(report.getPendingBills() + totals.getBillCount());
+                report.setPendingAmount(report.getPendingAmount().add(amount));
+            }
+            case OVERDUE -> {
+                report.setOverdueBills(report.getOverdueBills() + totals.getBillCount());
+                report.setOverdueAmount(report.getOverdueAmount().add(amount));
+            }
+        }
+    }
+}
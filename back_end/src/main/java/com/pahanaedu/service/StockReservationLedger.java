@@ -0,0 +1,301 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.exception.GlobalExceptionHandler.InsufficientStockException;
+import com.pahanaedu.utils.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional in-memory stock reservations for hot items (billing.stock.ledger.enabled).
+ *
+ * Each item's available count lives in a compare-and-set counter, so bills reserve stock without
+ * touching the items row. A reservation also appends rows to stock_journal in the bill's
+ * transaction: the journal is the durable record, and a rolled-back bill gives its units back to
+ * the counter. A scheduled flusher folds committed journal rows into items.stock_quantity in
+ * batches (ordered by item id) and deletes them in the same transaction.
+ *
+ * Crash recovery needs no extra step: counters are loaded as stock_quantity minus the item's
+ * unflushed journal rows, and the next flush applies whatever a crashed node left behind.
+ *
+ * The counters are only correct while a single node reserves stock. An enabled ledger therefore
+ * takes the stock-ledger row of node_leases at startup and refuses to start while another node
+ * holds it; the flusher renews the lease, and a node that loses it stops using the ledger.
+ */
+@Component
+public class StockReservationLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationLedger.class);
+
+    private static final String AVAILABLE_SQL =
+            "SELECT COALESCE(i.stock_quantity, 0) - COALESCE((SELECT SUM(j.quantity) FROM stock_journal j " +
+            "WHERE j.item_id = i.id), 0) FROM items i WHERE i.id = ?";
+
+    private static final String LEASE_NAME = "stock-ledger";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+
+    @Value("${billing.stock.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${billing.stock.ledger.flush-batch-size:5000}")
+    private int flushBatchSize;
+
+    // A node that has not renewed the lease for this long is taken to be gone
+    @Value("${billing.stock.ledger.lease-timeout-seconds:30}")
+    private int leaseTimeoutSeconds;
+
+    private final Map<Long, AtomicLong> available = new ConcurrentHashMap<>();
+    private final String nodeId = nodeName() + "/" + UUID.randomUUID();
+    private TransactionTemplate transactionTemplate;
+    private long leaseRenewedAt;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (enabled && !acquireLease()) {
+            String holder = jdbcTemplate.queryForObject(
+                    "SELECT owner FROM node_leases WHERE lease_name = ?", String.class, LEASE_NAME);
+            throw new IllegalStateException("billing.stock.ledger.enabled is on, but node " + holder
+                    + " already runs the stock ledger; it supports one node only. Turn it off on this node,"
+                    + " or wait " + leaseTimeoutSeconds + "s after stopping the other node");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take the quantities (item id to units) from the counters; a negative quantity puts units back
+     * once the caller's transaction commits. Throws InsufficientStockException naming every short item.
+     */
+    public void reserve(Map<Long, Long> quantities) {
+        Map<Long, Long> taken = new TreeMap<>();
+        Map<Long, Long> returned = new TreeMap<>();
+        List<Long> shortItems = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(quantities).entrySet()) {
+            long quantity = entry.getValue();
+            if (quantity < 0) {
+                returned.put(entry.getKey(), -quantity);
+            } else if (quantity > 0) {
+                AtomicLong counter = counter(entry.getKey());
+                if (counter != null && tryTake(counter, quantity)) {
+                    taken.put(entry.getKey(), quantity);
+                } else {
+                    shortItems.add(entry.getKey());
+                }
+            }
+        }
+        if (!shortItems.isEmpty()) {
+            giveBack(taken);
+            logger.warn("Insufficient stock for items {}", shortItems);
+            throw new InsufficientStockException("Insufficient stock for items: " + shortItems);
+        }
+        if (taken.isEmpty() && returned.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> journal = new ArrayList<>();
+        taken.forEach((itemId, units) -> journal.add(new Object[]{itemId, units}));
+        returned.forEach((itemId, units) -> journal.add(new Object[]{itemId, -units}));
+        try {
+            jdbcTemplate.batchUpdate("INSERT INTO stock_journal (item_id, quantity) VALUES (?, ?)", journal);
+        } catch (RuntimeException e) {
+            giveBack(taken);
+            throw e;
+        }
+
+        TransactionHooks.afterCompletion(() -> giveBack(returned), () -> giveBack(taken));
+    }
+
+    /**
+     * An item's stock was set directly (e.g. a restock); shift its counter by the change once committed
+     */
+    public void stockChanged(Long itemId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            AtomicLong counter = available.get(itemId);
+            if (counter != null) {
+                counter.addAndGet(delta);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${billing.stock.ledger.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (enabled) {
+            try {
+                if (!renewLease()) {
+                    // Another node took over: its counters and ours would both hand out the same units
+                    logger.error("Stock ledger lease was taken by another node; reserving stock in SQL from now on");
+                    enabled = false;
+                    reset();
+                }
+                flush();
+            } catch (RuntimeException e) {
+                // The journal rows stay put; the next run retries them
+                logger.error("Stock journal flush failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Apply up to flush-batch-size committed journal rows to items.stock_quantity and delete them,
+     * in one transaction. Returns the number of journal rows applied.
+     */
+    public synchronized int flush() {
+        return transactionTemplate.execute(status -> {
+            List<long[]> rows = jdbcTemplate.query(
+                    "SELECT id, item_id, quantity FROM stock_journal ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new long[]{rs.getLong("id"), rs.getLong("item_id"), rs.getLong("quantity")},
+                    flushBatchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, Long> byItem = new TreeMap<>();
+            List<Object[]> ids = new ArrayList<>(rows.size());
+            for (long[] row : rows) {
+                byItem.merge(row[1], row[2], Long::sum);
+                ids.add(new Object[]{row[0]});
+            }
+            List<Object[]> updates = new ArrayList<>(byItem.size());
+            byItem.forEach((itemId, units) -> {
+                if (units != 0) {
+                    updates.add(new Object[]{units, itemId});
+                }
+            });
+            jdbcTemplate.batchUpdate(
+                    "UPDATE items SET stock_quantity = stock_quantity - ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                    updates);
+            // Delete exactly the rows read: a row with a lower id may still belong to an open transaction
+            jdbcTemplate.batchUpdate("DELETE FROM stock_journal WHERE id = ?", ids);
+            // Cached items show items.stock_quantity; reload them once the new values commit
+            byItem.keySet().forEach(itemCatalogCache::invalidate);
+            logger.debug("Flushed {} stock journal rows for {} items", rows.size(), byItem.size());
+            return rows.size();
+        });
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (enabled) {
+            while (flush() > 0) {
+                // Drain the journal so a clean restart starts with items.stock_quantity up to date
+            }
+            releaseLease();
+        }
+    }
+
+    /**
+     * Take the stock-ledger lease if it is free, stale or already ours; false if another node holds it
+     */
+    boolean acquireLease() {
+        int taken = jdbcTemplate.update("UPDATE node_leases SET owner = ?, renewed_at = CURRENT_TIMESTAMP "
+                + "WHERE lease_name = ? AND (owner = ? OR renewed_at < TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP))",
+                nodeId, LEASE_NAME, nodeId, -leaseTimeoutSeconds);
+        if (taken == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO node_leases (lease_name, owner, renewed_at) "
+                        + "VALUES (?, ?, CURRENT_TIMESTAMP)", LEASE_NAME, nodeId);
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+        leaseRenewedAt = System.currentTimeMillis();
+        logger.info("Stock ledger lease held by {}", nodeId);
+        return true;
+    }
+
+    /**
+     * Renew the lease at a third of its timeout; false once another node has taken it
+     */
+    boolean renewLease() {
+        long now = System.currentTimeMillis();
+        if (now - leaseRenewedAt < leaseTimeoutSeconds * 1000L / 3) {
+            return true;
+        }
+        int renewed = jdbcTemplate.update("UPDATE node_leases SET renewed_at = CURRENT_TIMESTAMP "
+                + "WHERE lease_name = ? AND owner = ?", LEASE_NAME, nodeId);
+        if (renewed == 0) {
+            return false;
+        }
+        leaseRenewedAt = now;
+        return true;
+    }
+
+    void releaseLease() {
+        jdbcTemplate.update("DELETE FROM node_leases WHERE lease_name = ? AND owner = ?", LEASE_NAME, nodeId);
+    }
+
+    /**
+     * Forget every counter; they are reloaded from the database on next use
+     */
+    void reset() {
+        available.clear();
+    }
+
+    private AtomicLong counter(Long itemId) {
+        return available.computeIfAbsent(itemId, id -> {
+            List<Long> rows = jdbcTemplate.queryForList(AVAILABLE_SQL, Long.class, id);
+            return rows.isEmpty() ? null : new AtomicLong(rows.get(0));
+        });
+    }
+
+    private static String nodeName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+
+    private static boolean tryTake(AtomicLong counter, long quantity) {
+        long current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private void giveBack(Map<Long, Long> quantities) {
+        quantities.forEach((itemId, units) -> {
+            AtomicLong counter = available.get(itemId);
+            if (counter != null) {
+                counter.addAndGet(units);
+            }
+        });
+    }
+}
@@ -0,0 +1,136 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.exception.GlobalExceptionHandler.BusinessException;
+import com.pahanaedu.exception.GlobalExceptionHandler.InsufficientStockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps items.stock_quantity in step with the bills that consume it.
+ *
+ * Each change is a conditional UPDATE that only succeeds while enough stock is left, so concurrent
+ * bills on the same item never read-modify-write the row and stock never goes negative. A bill's
+ * updates are sent as one JDBC batch ordered by item id, so two bills sharing items always lock
+ * the rows in the same order and cannot deadlock. Runs in the caller's transaction: a rejected
+ * bill rolls back every decrement it already made.
+ *
+ * With billing.stock.ledger.enabled the changes go to StockReservationLedger instead, which
+ * reserves in memory and writes them behind to the items rows.
+ *
+ * Committed changes are applied to the cached items too (ItemCatalogCache), so they stay cached.
+ */
+@Service
+public class StockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+
+    // A negative quantity returns stock (the condition then always holds)
+    private static final String ADJUST_SQL =
+            "UPDATE items SET stock_quantity = stock_quantity - ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockReservationLedger stockReservationLedger;
+
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+
+    /**
+     * Take the quantities (item id to units) out of stock; a negative quantity puts units back.
+     * Throws InsufficientStockException naming every item that is short.
+     */
+    public void adjust(Map<Long, Long> quantities) {
+        if (stockReservationLedger.isEnabled()) {
+            stockReservationLedger.reserve(quantities);
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>();
+        List<Long> itemIds = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(quantities).entrySet()) {
+            long quantity = entry.getValue();
+            if (quantity != 0) {
+                args.add(new Object[]{quantity, entry.getKey(), quantity});
+                itemIds.add(entry.getKey());
+            }
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(ADJUST_SQL, args);
+        List<Long> shortItems = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                shortItems.add(itemIds.get(i));
+            }
+        }
+        if (!shortItems.isEmpty()) {
+            logger.warn("Insufficient stock for items {}", shortItems);
+            throw new InsufficientStockException("Insufficient stock for items: " + shortItems);
+        }
+        // Cached items show items.stock_quantity; reload them once the new values commit
+        itemIds.forEach(itemCatalogCache::invalidate);
+    }
+
+    /**
+     * Apply the difference between the lines a bill had and the lines it has now
+     */
+    public void adjust(Map<Long, Long> before, Map<Long, Long> after) {
+        SortedMap<Long, Long> delta = new TreeMap<>(after);
+        before.forEach((itemId, quantity) -> delta.merge(itemId, -quantity, Long::sum));
+        adjust(delta);
+    }
+
+    /**
+     * Units per item id over the given lines
+     */
+    public static Map<Long, Long> quantitiesByItem(Collection<BillItem> lines) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (BillItem line : lines) {
+            if (line.getItemId() != null) {
+                quantities.merge(line.getItemId(), units(line.getItemId(), line.getQuantity()), Long::sum);
+            }
+        }
+        return quantities;
+    }
+
+    /**
+     * Units per item id on a stored bill (empty if it does not exist). Fractional quantities
+     * from before stock was tracked are rounded rather than rejected.
+     */
+    public Map<Long, Long> storedQuantities(Long billId) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        jdbcTemplate.query("SELECT item_id, quantity FROM bill_items WHERE bill_id = ?",
+                rs -> {
+                    long units = rs.getBigDecimal("quantity").setScale(0, RoundingMode.HALF_UP).longValue();
+                    quantities.merge(rs.getLong("item_id"), units, Long::sum);
+                }, billId);
+        return quantities;
+    }
+
+    private static long units(Long itemId, BigDecimal quantity) {
+        try {
+            return quantity.stripTrailingZeros().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new BusinessException(
+                    "Quantity for item " + itemId + " must be a whole number: " + quantity);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pahanaedu.utils;
+
+/**
+ * Minimal RFC 4180 helpers for the CSV exports
+ */
+public final class CsvUtils {
+
+    private CsvUtils() {}
+
+    /**
+     * Quote a value if it contains a separator, quote or line break; null becomes an empty field
+     */
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * One CSV record (without the line terminator)
+     */
+    public static String row(Object... values) {
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            row.append(escape(values[i]));
+        }
+        return row.toString();
+    }
+}
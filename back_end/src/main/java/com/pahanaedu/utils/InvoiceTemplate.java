@@ -0,0 +1,257 @@
+package com.pahanaedu.utils;
+
+import com.pahanaedu.dto.InvoiceDto;
+import com.pahanaedu.dto.InvoiceLineDto;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled invoice layout (see templates/invoice.tpl for the format).
+ *
+ * Parsing happens once in compile(); the result is immutable, so one instance renders any number of
+ * invoices concurrently. Each render builds the PDF and writes it straight to the given stream.
+ */
+public final class InvoiceTemplate {
+
+    private static final float TOP = PDRectangle.A4.getHeight() - 50;
+    private static final float BOTTOM = 50;
+    private static final float LINE_SPACING = 1.4f;
+
+    private final List<Row> header;
+    private final List<Row> line;
+    private final List<Row> footer;
+
+    private InvoiceTemplate(List<Row> header, List<Row> line, List<Row> footer) {
+        this.header = List.copyOf(header);
+        this.line = List.copyOf(line);
+        this.footer = List.copyOf(footer);
+    }
+
+    private static final class Row {
+        private final float fontSize;
+        private final boolean bold;
+        private final List<Cell> cells;
+
+        private Row(float fontSize, boolean bold, List<Cell> cells) {
+            this.fontSize = fontSize;
+            this.bold = bold;
+            this.cells = List.copyOf(cells);
+        }
+    }
+
+    private static final class Cell {
+        private final float x;
+        private final List<Part> parts;
+
+        private Cell(float x, List<Part> parts) {
+            this.x = x;
+            this.parts = List.copyOf(parts);
+        }
+    }
+
+    // Either literal text or a placeholder (field != null), optionally truncated to maxChars
+    private static final class Part {
+        private final String text;
+        private final String field;
+        private final int maxChars;
+
+        private Part(String text, String field, int maxChars) {
+            this.text = text;
+            this.field = field;
+            this.maxChars = maxChars;
+        }
+    }
+
+    public static InvoiceTemplate compile(InputStream source) throws IOException {
+        List<Row> header = new ArrayList<>();
+        List<Row> line = new ArrayList<>();
+        List<Row> footer = new ArrayList<>();
+        List<Row> section = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8));
+        String text;
+        int lineNumber = 0;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = text.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            switch (trimmed) {
+                case "[header]" -> section = header;
+                case "[line]" -> section = line;
+                case "[footer]" -> section = footer;
+                default -> {
+                    if (section == null) {
+                        throw new IllegalArgumentException("Invoice template line " + lineNumber + ": row outside a section");
+                    }
+                    section.add(parseRow(trimmed, lineNumber));
+                }
+            }
+        }
+        return new InvoiceTemplate(header, line, footer);
+    }
+
+    private static Row parseRow(String text, int lineNumber) {
+        String[] pieces = text.split("\\s*@");
+        String size = pieces[0].trim();
+        boolean bold = size.endsWith("b");
+        float fontSize;
+        try {
+            fontSize = Float.parseFloat(bold ? size.substring(0, size.length() - 1) : size);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invoice template line " + lineNumber + ": bad font size '" + size + "'");
+        }
+
+        List<Cell> cells = new ArrayList<>();
+        for (int i = 1; i < pieces.length; i++) {
+            String piece = pieces[i];
+            int space = piece.indexOf(' ');
+            String x = space < 0 ? piece : piece.substring(0, space);
+            try {
+                cells.add(new Cell(Float.parseFloat(x), parseParts(space < 0 ? "" : piece.substring(space + 1))));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invoice template line " + lineNumber + ": bad x position '" + x + "'");
+            }
+        }
+        return new Row(fontSize, bold, cells);
+    }
+
+    private static List<Part> parseParts(String text) {
+        List<Part> parts = new ArrayList<>();
+        int position = 0;
+        while (position < text.length()) {
+            int open = text.indexOf('{', position);
+            int close = open < 0 ? -1 : text.indexOf('}', open);
+            if (close < 0) {
+                parts.add(new Part(text.substring(position), null, 0));
+                break;
+            }
+            if (open > position) {
+                parts.add(new Part(text.substring(position, open), null, 0));
+            }
+            String placeholder = text.substring(open + 1, close);
+            int colon = placeholder.indexOf(':');
+            parts.add(colon < 0
+                    ? new Part(null, placeholder, 0)
+                    : new Part(null, placeholder.substring(0, colon), Integer.parseInt(placeholder.substring(colon + 1))));
+            position = close + 1;
+        }
+        return parts;
+    }
+
+    /**
+     * Render the invoice as a PDF onto out
+     */
+    public void render(InvoiceDto invoice, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            Page page = new Page(document);
+            try {
+                Map<String, String> fields = invoice.toFields();
+                page.draw(header, fields);
+                for (InvoiceLineDto invoiceLine : invoice.getLines()) {
+                    page.draw(line, invoiceLine.toFields());
+                }
+                page.draw(footer, fields);
+            } finally {
+                page.close();
+            }
+            document.save(out);
+        }
+    }
+
+    /**
+     * Cursor over the document's pages; starts a new page when a row would run past the bottom margin
+     */
+    private static final class Page {
+        private final PDDocument document;
+        private final PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        private final PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        private PDPageContentStream content;
+        private float y;
+
+        private Page(PDDocument document) throws IOException {
+            this.document = document;
+            newPage();
+        }
+
+        private void newPage() throws IOException {
+            close();
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            content = new PDPageContentStream(document, page);
+            y = TOP;
+        }
+
+        private void draw(List<Row> rows, Map<String, String> fields) throws IOException {
+            for (Row row : rows) {
+                float height = row.fontSize * LINE_SPACING;
+                if (y - height < BOTTOM) {
+                    newPage();
+                }
+                y -= height;
+                for (Cell cell : row.cells) {
+                    String text = resolve(cell.parts, fields);
+                    if (text.isEmpty()) {
+                        continue;
+                    }
+                    content.beginText();
+                    content.setFont(row.bold ? bold : regular, row.fontSize);
+                    content.newLineAtOffset(cell.x, y);
+                    content.showText(text);
+                    content.endText();
+                }
+            }
+        }
+
+        private void close() throws IOException {
+            if (content != null) {
+                content.close();
+                content = null;
+            }
+        }
+    }
+
+    private static String resolve(List<Part> parts, Map<String, String> fields) {
+        StringBuilder text = new StringBuilder();
+        for (Part part : parts) {
+            if (part.field == null) {
+                text.append(part.text);
+                continue;
+            }
+            String value = fields.get(part.field);
+            if (value == null) {
+                continue;
+            }
+            if (part.maxChars > 0 && value.length() > part.maxChars) {
+                value = value.substring(0, part.maxChars - 1) + "~";
+            }
+            text.append(value);
+        }
+        return printable(text);
+    }
+
+    // The standard fonts only cover WinAnsi; anything else would make showText throw
+    private static String printable(CharSequence text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            result.append((c >= 32 && c < 127) || (c >= 160 && c <= 255) ? c : '?');
+        }
+        return result.toString();
+    }
+}
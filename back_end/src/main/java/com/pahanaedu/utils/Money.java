@@ -0,0 +1,109 @@
+package com.pahanaedu.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on plain longs, for totals computed in a loop.
+ *
+ * Amounts are long cents (minor units, scale 2) and rates are long millionths (scale 6), so adding
+ * and rating amounts allocates nothing. Every operation that can lose precision takes an explicit
+ * RoundingMode, and overflow throws ArithmeticException instead of wrapping. Convert from and to
+ * BigDecimal only where amounts enter or leave, e.g. at the entity.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final int RATE_SCALE = 6;
+
+    private static final long RATE_ONE = 1_000_000L;
+
+    // Up to 15 significant digits the unscaled value survives a trip through double exactly
+    private static final int MAX_EXACT_PRECISION = 15;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L};
+
+    private Money() {}
+
+    /**
+     * The amount in cents; sub-cent amounts are rounded with the given mode
+     */
+    public static long of(BigDecimal amount, RoundingMode rounding) {
+        int scale = amount.scale();
+        if (scale >= 0 && scale < POWERS_OF_TEN.length && amount.precision() <= MAX_EXACT_PRECISION) {
+            // BigDecimal has no allocation-free accessor for its unscaled value, but doubleValue()
+            // divides it by 10^scale with a single correctly rounded operation, so multiplying back
+            // and rounding recovers it exactly (the error stays far below one half)
+            long unscaled = Math.round(amount.doubleValue() * POWERS_OF_TEN[scale]);
+            return scale <= SCALE
+                    ? unscaled * POWERS_OF_TEN[SCALE - scale]
+                    : divide(unscaled, POWERS_OF_TEN[scale - SCALE], rounding);
+        }
+        BigDecimal cents = scale == SCALE ? amount : amount.setScale(SCALE, rounding);
+        return cents.unscaledValue().longValueExact();
+    }
+
+    /**
+     * The rate in millionths (0.10 becomes 100000); finer rates are rounded with the given mode
+     */
+    public static long rate(BigDecimal rate, RoundingMode rounding) {
+        BigDecimal millionths = rate.scale() == RATE_SCALE ? rate : rate.setScale(RATE_SCALE, rounding);
+        return millionths.unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    public static long subtract(long cents, long otherCents) {
+        return Math.subtractExact(cents, otherCents);
+    }
+
+    /**
+     * cents x rate, rounded to whole cents with the given mode
+     */
+    public static long applyRate(long cents, long rate, RoundingMode rounding) {
+        return divide(Math.multiplyExact(cents, rate), RATE_ONE, rounding);
+    }
+
+    /**
+     * dividend / divisor (divisor > 0) rounded like BigDecimal.divide with the same mode
+     */
+    static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = dividend < 0 ? -1 : 1;
+        // Compares the discarded fraction with one half without overflowing
+        long twiceRemainder = Math.abs(remainder) * 2;
+        boolean aboveHalf = twiceRemainder > divisor;
+        boolean half = twiceRemainder == divisor;
+        switch (rounding) {
+            case DOWN:
+                return quotient;
+            case UP:
+                return quotient + sign;
+            case FLOOR:
+                return sign < 0 ? quotient - 1 : quotient;
+            case CEILING:
+                return sign > 0 ? quotient + 1 : quotient;
+            case HALF_UP:
+                return aboveHalf || half ? quotient + sign : quotient;
+            case HALF_DOWN:
+                return aboveHalf ? quotient + sign : quotient;
+            case HALF_EVEN:
+                return aboveHalf || (half && (quotient & 1) != 0) ? quotient + sign : quotient;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.pahanaedu.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers work on in-memory state (caches, indexes, counters) until the current transaction ends,
+ * so other threads never see changes that could still roll back. Outside a transaction the work
+ * runs straight away, as if it had committed.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    /**
+     * Run the action once the current transaction commits; a rollback skips it
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Run the action once the current transaction commits or rolls back
+     */
+    public static void afterCompletion(Runnable action) {
+        afterCompletion(action, action);
+    }
+
+    /**
+     * Run onCommit or onRollback, depending on how the current transaction ends
+     */
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    (status == STATUS_COMMITTED ? onCommit : onRollback).run();
+                }
+            });
+        } else {
+            onCommit.run();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+# Invoice layout for GET /api/bills/{id}/pdf. Parsed once at startup into an InvoiceTemplate.
+#
+# Row:   <font size>[b] @<x> <text> [@<x> <text> ...]   (b = bold; x in points from the left edge)
+# Text:  literal text with {field} or {field:maxChars} placeholders
+# A row with only a font size is vertical space. [header] and [footer] rows are drawn once,
+# [line] rows once per bill line.
+
+[header]
+20b @50 PAHANA EDU
+10 @50 Bookshop Billing System
+14
+14b @50 INVOICE {billNumber}
+10 @50 Bill date: {billDate} @300 Due date: {dueDate}
+10 @50 Status: {status}
+14
+11b @50 Bill to
+10 @50 {customerName:60} ({accountNumber})
+10 @50 {customerAddress:80}
+10 @50 Tel: {customerTelephone}
+14
+10b @50 Code @130 Item @350 Qty @410 Unit price @490 Amount
+
+[line]
+10 @50 {itemCode:14} @130 {itemName:40} @350 {quantity} @410 {unitPrice} @490 {totalPrice}
+
+[footer]
+14
+10 @410 Subtotal @490 {subtotal}
+10 @410 Tax @490 {taxAmount}
+11b @410 Total @490 {totalAmount}
+20
+9 @50 Thank you for your business.
@@ -0,0 +1,106 @@
+package com.pahanaedu.benchmark;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillItemDto;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.CustomerRepository;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.service.BillService;
+import com.pahanaedu.support.QueryCounter;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bill insert throughput with and without JDBC batching.
+ *
+ * "unbatched" runs with hibernate.jdbc.batch_size=1, i.e. one INSERT round-trip per row as with
+ * the former IDENTITY ids; "batched" runs with the application settings. Disabled by default:
+ *
+ *   mvn test -Dtest=BillInsertBenchmarkTest -Dbenchmarks=true
+ *
+ * Against H2 the round-trip is almost free, so also run it against MySQL by overriding
+ * spring.datasource.url/username/password (the schema must already exist there).
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class BillInsertBenchmarkTest {
+
+    private static final int WARMUP_BILLS = 200;
+    private static final int MEASURED_BILLS = 1000;
+    private static final int LINES_PER_BILL = 50;
+
+    @Nested
+    @SpringBootTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=1")
+    @ActiveProfiles("test")
+    class Unbatched extends InsertRun {
+        @Test
+        void insertThroughput() {
+            run("unbatched");
+        }
+    }
+
+    @Nested
+    @SpringBootTest
+    @ActiveProfiles("test")
+    class Batched extends InsertRun {
+        @Test
+        void insertThroughput() {
+            run("batched");
+        }
+    }
+
+    abstract static class InsertRun {
+
+        @Autowired
+        private BillService billService;
+
+        @Autowired
+        private CustomerRepository customerRepository;
+
+        @Autowired
+        private ItemRepository itemRepository;
+
+        void run(String label) {
+            Customer customer = customerRepository.save(
+                    new Customer("BENCH-" + label, "Benchmark Customer", "1 Bench Road", "0770000000"));
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < LINES_PER_BILL; i++) {
+                items.add(itemRepository.save(new Item("B-" + label + "-" + i, "Bench Item " + i, BigDecimal.TEN, 1_000_000)));
+            }
+
+            for (int i = 0; i < WARMUP_BILLS; i++) {
+                billService.createBillFromDTO(bill(customer, items));
+            }
+
+            QueryCounter.reset();
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_BILLS; i++) {
+                billService.createBillFromDTO(bill(customer, items));
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            System.out.printf("[%s] %d bills x %d lines in %.2fs: %.0f bills/s, %.0f rows/s, %d insert statements%n",
+                    label, MEASURED_BILLS, LINES_PER_BILL, seconds, MEASURED_BILLS / seconds,
+                    MEASURED_BILLS * (LINES_PER_BILL + 1) / seconds, QueryCounter.inserts());
+        }
+
+        private BillDto bill(Customer customer, List<Item> items) {
+            BillDto billDto = new BillDto(customer.getId(), LocalDate.now(), LocalDate.now().plusDays(30));
+            List<BillItemDto> lines = new ArrayList<>(items.size());
+            for (Item item : items) {
+                lines.add(new BillItemDto(item.getId(), BigDecimal.ONE, BigDecimal.TEN));
+            }
+            billDto.setBillItems(lines);
+            return billDto;
+        }
+    }
+}
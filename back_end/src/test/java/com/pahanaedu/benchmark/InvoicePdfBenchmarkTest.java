@@ -0,0 +1,108 @@
+package com.pahanaedu.benchmark;
+
+import com.pahanaedu.dto.InvoiceDto;
+import com.pahanaedu.dto.InvoiceLineDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.utils.InvoiceTemplate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invoice rendering throughput when many invoices are printed at once (e.g. month-end runs).
+ *
+ * "parse-each" compiles the template for every invoice, "compiled" reuses one compiled template
+ * as InvoicePdfService does. Disabled by default:
+ *
+ *   mvn test -Dtest=InvoicePdfBenchmarkTest -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class InvoicePdfBenchmarkTest {
+
+    private static final int WARMUP_INVOICES = 500;
+    private static final int MEASURED_INVOICES = 5000;
+    private static final int LINES_PER_INVOICE = 20;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    void renderThroughput() throws Exception {
+        InvoiceDto invoice = invoice();
+        InvoiceTemplate compiled = compileTemplate();
+
+        run("parse-each", WARMUP_INVOICES, () -> compileTemplate().render(invoice, OutputStream.nullOutputStream()));
+        run("compiled", WARMUP_INVOICES, () -> compiled.render(invoice, OutputStream.nullOutputStream()));
+
+        run("parse-each", MEASURED_INVOICES, () -> compileTemplate().render(invoice, OutputStream.nullOutputStream()));
+        run("compiled", MEASURED_INVOICES, () -> compiled.render(invoice, OutputStream.nullOutputStream()));
+    }
+
+    private interface Render {
+        void run() throws IOException;
+    }
+
+    private void run(String label, int invoices, Render render) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicLong remaining = new AtomicLong(invoices);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        try {
+                            render.run();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.out.printf("[%s] %d invoices x %d lines on %d threads in %.2fs: %.0f invoices/s%n",
+                    label, invoices, LINES_PER_INVOICE, THREADS, seconds, invoices / seconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private InvoiceTemplate compileTemplate() throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/templates/invoice.tpl")) {
+            return InvoiceTemplate.compile(source);
+        }
+    }
+
+    private InvoiceDto invoice() {
+        InvoiceDto invoice = new InvoiceDto();
+        invoice.setBillId(1L);
+        invoice.setBillNumber("BILL000001");
+        invoice.setBillDate(LocalDate.now());
+        invoice.setDueDate(LocalDate.now().plusDays(30));
+        invoice.setStatus(Bill.BillStatus.PAID);
+        invoice.setCustomerName("Benchmark Customer");
+        invoice.setAccountNumber("ACC000001");
+        invoice.setCustomerAddress("1 Bench Road, Colombo");
+        invoice.setCustomerTelephone("0770000000");
+        invoice.setSubtotal(new BigDecimal("200.00"));
+        invoice.setTaxAmount(new BigDecimal("20.00"));
+        invoice.setTotalAmount(new BigDecimal("220.00"));
+        for (int i = 0; i < LINES_PER_INVOICE; i++) {
+            invoice.getLines().add(new InvoiceLineDto("ITM" + i, "Bench Item " + i, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN));
+        }
+        return invoice;
+    }
+}
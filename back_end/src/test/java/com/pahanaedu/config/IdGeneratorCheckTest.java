@@ -0,0 +1,48 @@
+package com.pahanaedu.config;
+
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdGeneratorCheckTest {
+
+    @Autowired
+    private IdGeneratorCheck idGeneratorCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatorIsMovedPastRowsInsertedInSql() {
+        long next = nextValue("customers");
+        long id = next + 1_000;
+        jdbcTemplate.update("INSERT INTO customers (id, account_number, name, address, telephone, units_consumed)"
+                        + " VALUES (?, ?, 'SQL Customer', '1 Test Road', '0770000000', 0)",
+                id, "SQL-" + BillingFixture.uniqueSuffix());
+
+        idGeneratorCheck.run();
+
+        assertThat(nextValue("customers")).isEqualTo(id + 1);
+    }
+
+    @Test
+    void generatorAheadOfTheTableIsLeftAlone() {
+        long before = nextValue("items");
+
+        idGeneratorCheck.run();
+
+        assertThat(nextValue("items")).isEqualTo(before);
+    }
+
+    private long nextValue(String generator) {
+        return jdbcTemplate.queryForObject(
+                "SELECT next_value FROM id_generators WHERE generator_name = ?", Long.class, generator);
+    }
+}
@@ -0,0 +1,242 @@
+package com.pahanaedu.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.service.BillService;
+import com.pahanaedu.support.BillingFixture;
+import com.pahanaedu.support.QueryCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query counts of the bill read endpoints. Lists are DTO projections and single bills are loaded
+ * with their customer, lines and items in one fetch-graph query, so the count does not grow with
+ * the number of bills or lines. Also covers the keyset-paged listing: pages follow bill id, the
+ * last page carries no cursor and malformed or negative cursors are rejected, and the status
+ * returned when an Idempotency-Key is reused for a different bill.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class BillControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Customer customer;
+    private List<Item> items;
+    private List<Long> billIds;
+    private Bill bill;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("CTRL", "Controller Customer");
+        items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(fixture.item("CTRL-ITM" + i, "Controller Item " + i, new BigDecimal("10.00"), BillingFixture.PLENTY));
+        }
+
+        billIds = new ArrayList<>();
+        for (int b = 0; b < 5; b++) {
+            bill = billService.createBillFromDTO(BillingFixture.billDto(customer, 2, items.toArray(new Item[0])));
+            billIds.add(bill.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listingAllBillsIsOneQuery() throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(get("/api/bills"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().string("Link", "</api/bills/page>; rel=\"successor-version\""))
+                .andExpect(jsonPath("$[*].customerName", hasItem("Controller Customer")))
+                .andExpect(jsonPath("$[0].billItems").doesNotExist());
+        assertThat(QueryCounter.selects()).isEqualTo(1);
+    }
+
+    @Test
+    void listingCustomerBillsIsOneQuery() throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(get("/api/bills/customer/{id}", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].customerName").value("Controller Customer"));
+        assertThat(QueryCounter.selects()).isEqualTo(1);
+    }
+
+    @Test
+    void billDetailByIdIsOneQuery() throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(get("/api/bills/{id}", bill.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.accountNumber").value(customer.getAccountNumber()))
+                .andExpect(jsonPath("$.billItems.length()").value(20))
+                .andExpect(jsonPath("$.billItems[0].item.itemCode").value(items.get(0).getItemCode()))
+                .andExpect(jsonPath("$.billItems[0].bill").doesNotExist());
+        assertThat(QueryCounter.selects()).isEqualTo(1);
+    }
+
+    @Test
+    void billDetailByNumberIsOneQuery() throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(get("/api/bills/number/{number}", bill.getBillNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(bill.getId()))
+                .andExpect(jsonPath("$.billItems.length()").value(20));
+        assertThat(QueryCounter.selects()).isEqualTo(1);
+    }
+
+    @Test
+    void getBillByIdFetchesLinesAndItemsWithTheBill() {
+        QueryCounter.reset();
+        Bill loaded = billService.getBillById(bill.getId()).orElseThrow();
+        loaded.getCustomer().getName();
+        loaded.getBillItems().forEach(line -> line.getItem().getItemCode());
+
+        assertThat(loaded.getBillItems()).hasSize(20);
+        assertThat(QueryCounter.selects()).isEqualTo(1);
+    }
+
+    @Test
+    void cursorPagesWalkEveryBillOnceInIdOrder() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        JsonNode page;
+        do {
+            page = customerPage(cursor, 2);
+            pages++;
+            page.get("bills").forEach(row -> seen.add(row.get("id").asLong()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asLong() : null;
+        } while (page.get("hasMore").asBoolean());
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).isSorted().doesNotHaveDuplicates()
+                .containsExactlyElementsOf(billIds.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void sameCursorReturnsTheSamePage() throws Exception {
+        long cursor = customerPage(null, 2).get("nextCursor").asLong();
+
+        JsonNode first = customerPage(cursor, 2);
+        JsonNode again = customerPage(cursor, 2);
+
+        assertThat(again.get("bills")).isEqualTo(first.get("bills"));
+        assertThat(first.get("bills").get(0).get("id").asLong()).isGreaterThan(cursor);
+    }
+
+    @Test
+    void lastPageHasNoNextCursor() throws Exception {
+        long lastId = billIds.get(billIds.size() - 1);
+        long beforeLast = billIds.get(billIds.size() - 2);
+
+        mockMvc.perform(get("/api/bills/customer/{id}/page", customer.getId())
+                        .param("cursor", String.valueOf(beforeLast)).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bills.length()").value(1))
+                .andExpect(jsonPath("$.bills[0].id").value(lastId))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.size").value(1));
+
+        mockMvc.perform(get("/api/bills/customer/{id}/page", customer.getId())
+                        .param("cursor", String.valueOf(lastId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bills.length()").value(0))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void badCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/bills/page").param("cursor", "abc")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/bills/page").param("cursor", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/bills/customer/{id}/page", customer.getId()).param("cursor", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode customerPage(Long cursor, int size) throws Exception {
+        var request = get("/api/bills/customer/{id}/page", customer.getId()).param("size", String.valueOf(size));
+        if (cursor != null) {
+            request.param("cursor", String.valueOf(cursor));
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    void idempotencyKeyReusedForDifferentBodyIsUnprocessable() throws Exception {
+        String key = UUID.randomUUID().toString();
+        BillDto first = BillingFixture.billDto(customer, 1, items.get(0));
+        BillDto second = BillingFixture.billDto(customer, 2, items.get(0));
+
+        long billId = objectMapper.readTree(mockMvc.perform(post("/api/bills")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post("/api/bills")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(billId));
+
+        mockMvc.perform(post("/api/bills")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void missingBillIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/bills/{id}", -1L)).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,140 @@
+package com.pahanaedu.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The NDJSON import endpoint: one result line per record, keyed by its line number in the upload,
+ * followed by the totals. Bad records fail on their own without stopping the rest of the import.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BillImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Customer customer;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("IMP", "Import Customer");
+        item = fixture.item("IMP-ITM", "Import Item", new BigDecimal("12.50"), BillingFixture.PLENTY);
+    }
+
+    @Test
+    void badRecordsFailWithTheirLineNumbersAndTheRestAreImported() throws Exception {
+        BillDto unknownItem = BillingFixture.billDto(customer, 1, item);
+        unknownItem.getBillItems().get(0).setItemId(-1L);
+        BillDto noCustomer = BillingFixture.billDto(customer, 1, item);
+        noCustomer.setCustomerId(null);
+
+        String upload = String.join("\n",
+                json(BillingFixture.billDto(customer, 2, item)),
+                "",
+                "{\"customerId\": " + customer.getId() + ", \"billItems\": [",
+                json(unknownItem),
+                json(noCustomer),
+                json(BillingFixture.billDto(customer, 3, item)));
+
+        List<JsonNode> lines = importNdjson(upload);
+        JsonNode summary = lines.get(lines.size() - 1);
+        Map<Long, JsonNode> results = byLineNumber(lines.subList(0, lines.size() - 1));
+
+        assertThat(results).containsOnlyKeys(1L, 3L, 4L, 5L, 6L);
+
+        assertThat(results.get(1L).get("success").asBoolean()).isTrue();
+        assertThat(results.get(6L).get("success").asBoolean()).isTrue();
+        for (long ok : new long[] {1L, 6L}) {
+            long billId = results.get(ok).get("billId").asLong();
+            assertThat(billRepository.findById(billId)).isPresent();
+            assertThat(results.get(ok).get("billNumber").asText()).isNotBlank();
+        }
+
+        assertThat(results.get(3L).get("success").asBoolean()).isFalse();
+        assertThat(results.get(3L).get("error").asText()).startsWith("Invalid JSON");
+        assertThat(results.get(4L).get("success").asBoolean()).isFalse();
+        assertThat(results.get(4L).get("error").asText()).isNotBlank();
+        assertThat(results.get(5L).get("success").asBoolean()).isFalse();
+        assertThat(results.get(5L).get("error").asText()).contains("customerId");
+
+        assertThat(billRepository.findSummariesByCustomerId(customer.getId())).hasSize(2);
+        assertThat(summary.get("total").asLong()).isEqualTo(5);
+        assertThat(summary.get("succeeded").asLong()).isEqualTo(2);
+        assertThat(summary.get("failed").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void uploadOfOnlyMalformedLinesImportsNothing() throws Exception {
+        List<JsonNode> lines = importNdjson("not json\n{\"customerId\":\n");
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0).get("lineNumber").asLong()).isEqualTo(1);
+        assertThat(lines.get(1).get("lineNumber").asLong()).isEqualTo(2);
+        assertThat(lines.get(0).get("success").asBoolean()).isFalse();
+        assertThat(lines.get(1).get("success").asBoolean()).isFalse();
+        assertThat(lines.get(2).get("failed").asLong()).isEqualTo(2);
+        assertThat(lines.get(2).get("succeeded").asLong()).isZero();
+        assertThat(billRepository.findSummariesByCustomerId(customer.getId())).isEmpty();
+    }
+
+    private List<JsonNode> importNdjson(String upload) throws Exception {
+        String body = mockMvc.perform(post("/api/bills/import")
+                        .contentType("application/x-ndjson")
+                        .content(upload))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return body.lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new IllegalStateException("Response line is not JSON: " + line, e);
+            }
+        }).toList();
+    }
+
+    private static Map<Long, JsonNode> byLineNumber(List<JsonNode> results) {
+        Map<Long, JsonNode> byLine = new HashMap<>();
+        for (JsonNode result : results) {
+            assertThat(byLine.put(result.get("lineNumber").asLong(), result)).isNull();
+        }
+        return byLine;
+    }
+
+    private String json(BillDto billDto) throws Exception {
+        return objectMapper.writeValueAsString(billDto);
+    }
+}
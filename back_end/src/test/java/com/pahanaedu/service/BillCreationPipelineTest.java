@@ -0,0 +1,81 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillCreationStatusDto;
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.support.BillingFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BillCreationPipelineTest {
+
+    @Autowired
+    private BillCreationPipeline billCreationPipeline;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Customer customer;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("ASYNC", "Async Customer");
+        item = fixture.item("ASYNC", "Async Item", new BigDecimal("12.50"), BillingFixture.PLENTY);
+    }
+
+    @Test
+    void queuedBillsAreCommittedAndRejectedOnesFailAlone() throws Exception {
+        long before = billRepository.count();
+
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tickets.add(billCreationPipeline.submit(BillingFixture.billDto(customer, 2, item)).getTicket());
+        }
+        BillDto unknownItem = BillingFixture.billDto(customer, 2, item);
+        unknownItem.getBillItems().get(0).setItemId(-1L);
+        String badTicket = billCreationPipeline.submit(unknownItem).getTicket();
+
+        Set<Long> billIds = new HashSet<>();
+        for (String ticket : tickets) {
+            BillCreationStatusDto status = billCreationPipeline.completion(ticket).orElseThrow().get(30, TimeUnit.SECONDS);
+            assertThat(status.getState()).isEqualTo(BillCreationStatusDto.State.COMMITTED);
+            billIds.add(status.getBillId());
+        }
+        BillCreationStatusDto bad = billCreationPipeline.completion(badTicket).orElseThrow().get(30, TimeUnit.SECONDS);
+
+        assertThat(billIds).hasSize(30);
+        assertThat(bad.getState()).isEqualTo(BillCreationStatusDto.State.FAILED);
+        assertThat(bad.getError()).contains("Item not found");
+        assertThat(billRepository.count()).isEqualTo(before + 30);
+        assertThat(billCreationPipeline.getStatus(tickets.get(0))).get()
+                .extracting(BillCreationStatusDto::getState).isEqualTo(BillCreationStatusDto.State.COMMITTED);
+
+        // Every bill went through a recorded batch
+        double batchedBills = meterRegistry.get("billing.async.batch.size").summary().totalAmount();
+        assertThat(batchedBills).isGreaterThanOrEqualTo(31);
+    }
+}
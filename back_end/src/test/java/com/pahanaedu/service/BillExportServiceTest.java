@@ -0,0 +1,126 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.support.BillingFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BillExportServiceTest {
+
+    // Far from the dates other tests use, so only this test's bills fall in the range
+    private static final LocalDate FIRST_DAY = LocalDate.of(2001, 3, 1);
+
+    @Autowired
+    private BillExportService billExportService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int csvClearInterval;
+
+    @BeforeEach
+    void saveSettings() {
+        csvClearInterval = (int) ReflectionTestUtils.getField(billExportService, "csvClearInterval");
+    }
+
+    @AfterEach
+    void restoreSettings() {
+        ReflectionTestUtils.setField(billExportService, "csvClearInterval", csvClearInterval);
+    }
+
+    @Test
+    void exportsOnePdfPerBillAndCsvSummary() throws Exception {
+        Customer customer = fixture.customer("EXPORT", "Export, Customer");
+        Item item = fixture.item("EXPORT", "Export Item", new BigDecimal("40.00"), BillingFixture.PLENTY);
+        List<String> billNumbers = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            billNumbers.add(billService.createBillFromDTO(BillingFixture.billDto(customer,
+                    FIRST_DAY.plusDays(day), FIRST_DAY.plusDays(day + 30), 2, item)).getBillNumber());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // The last bill falls outside the range
+        billExportService.exportZip(FIRST_DAY, FIRST_DAY.plusDays(3), out);
+
+        List<String> entries = new ArrayList<>();
+        String csv = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.add(entry.getName());
+                byte[] content = zip.readAllBytes();
+                if (entry.getName().equals("bills.csv")) {
+                    assertThat(entry.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+                    csv = new String(content, StandardCharsets.UTF_8);
+                } else {
+                    // PDFs are stored, not deflated a second time
+                    assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED);
+                    assertThat(new String(content, 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+                }
+            }
+        }
+
+        assertThat(entries).containsExactly("pdf/" + billNumbers.get(0) + ".pdf", "pdf/" + billNumbers.get(1) + ".pdf",
+                "pdf/" + billNumbers.get(2) + ".pdf", "pdf/" + billNumbers.get(3) + ".pdf", "bills.csv");
+        assertThat(csv.lines()).hasSize(5);
+        assertThat(csv).contains("\"Export, Customer\"", billNumbers.get(3)).doesNotContain(billNumbers.get(4));
+    }
+
+    @Test
+    void exportsCsvRowsForTheDateRange() throws Exception {
+        LocalDate firstDay = FIRST_DAY.plusMonths(1);
+        Customer customer = fixture.customer("CSV", "Csv \"Quoted\" Customer");
+        Item item = fixture.item("CSV", "Csv Item", new BigDecimal("15.00"), BillingFixture.PLENTY);
+        List<String> billNumbers = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            billNumbers.add(billService.createBillFromDTO(BillingFixture.billDto(customer,
+                    firstDay.plusDays(day), firstDay.plusDays(day + 30), 1, item)).getBillNumber());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Clear more than once during the export
+        ReflectionTestUtils.setField(billExportService, "csvClearInterval", 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        billExportService.exportCsv(firstDay, firstDay.plusDays(5), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(7);
+        assertThat(lines.get(0)).startsWith("bill_number,bill_date");
+        for (int i = 0; i < 6; i++) {
+            assertThat(lines.get(i + 1)).startsWith(billNumbers.get(i) + "," + firstDay.plusDays(i))
+                    .contains(customer.getAccountNumber() + ",\"Csv \"\"Quoted\"\" Customer\",PENDING");
+        }
+    }
+}
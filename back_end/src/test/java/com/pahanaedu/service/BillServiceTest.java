@@ -0,0 +1,162 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillItemDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.support.BillingFixture;
+import com.pahanaedu.support.QueryCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BillServiceTest {
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer customer;
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("TEST", "Test Customer");
+
+        items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(fixture.item("TEST-ITM" + i, "Test Item " + i, new BigDecimal("10.00"), BillingFixture.PLENTY));
+        }
+        flushAndClear();
+    }
+
+    @Test
+    void createBillFromDTOResolvesItemsWithConstantQueryCount() {
+        QueryCounter.reset();
+        billService.createBillFromDTO(billWithLines(1));
+        int selectsForOneLine = QueryCounter.selects();
+        flushAndClear();
+
+        QueryCounter.reset();
+        Bill bill = billService.createBillFromDTO(billWithLines(200));
+        int selectsForManyLines = QueryCounter.selects();
+
+        assertThat(bill.getBillItems()).hasSize(200);
+        assertThat(selectsForManyLines).isEqualTo(selectsForOneLine);
+    }
+
+    @Test
+    void createBillFromDTOReportsAllMissingItemsTogether() {
+        BillDto billDto = billWithLines(2);
+        billDto.getBillItems().add(new BillItemDto(-1L, BigDecimal.ONE, BigDecimal.TEN));
+        billDto.getBillItems().add(new BillItemDto(-2L, BigDecimal.ONE, BigDecimal.TEN));
+
+        assertThatThrownBy(() -> billService.createBillFromDTO(billDto))
+                .hasMessageContaining("Items not found with IDs: [-1, -2]");
+    }
+
+    @Test
+    void updateBillOnlyWritesChangedLines() {
+        Bill created = billService.createBillFromDTO(billWithLines(50));
+        flushAndClear();
+
+        Bill unchanged = copyOf(created);
+        QueryCounter.reset();
+        billService.updateBill(created.getId(), unchanged);
+        entityManager.flush();
+        assertThat(QueryCounter.inserts() + QueryCounter.updates() + QueryCounter.deletes()).isZero();
+        entityManager.clear();
+
+        Bill oneChanged = copyOf(created);
+        oneChanged.getBillItems().get(0).setQuantity(new BigDecimal("5"));
+        QueryCounter.reset();
+        Bill updated = billService.updateBill(created.getId(), oneChanged);
+        entityManager.flush();
+
+        // The changed line plus the bill's totals; nothing deleted or re-inserted
+        assertThat(QueryCounter.updates()).isEqualTo(2);
+        assertThat(QueryCounter.inserts()).isZero();
+        assertThat(QueryCounter.deletes()).isZero();
+        assertThat(updated.getBillItems()).hasSize(50);
+    }
+
+    @Test
+    void updateBillMatchesLineIdsBeforeItems() {
+        Item item = items.get(0);
+        BillDto billDto = BillingFixture.billDto(customer, 1, item, item);
+        billDto.getBillItems().get(1).setQuantity(new BigDecimal("2"));
+        Bill created = billService.createBillFromDTO(billDto);
+        flushAndClear();
+        BillItem first = created.getBillItems().get(0);
+        BillItem second = created.getBillItems().get(1);
+
+        // A line without an id for the same item comes before the line that names the first one
+        Bill update = copyOf(created);
+        BillItem unnamed = update.getBillItems().get(1);
+        unnamed.setId(null);
+        unnamed.setQuantity(new BigDecimal("3"));
+        update.setBillItems(new ArrayList<>(List.of(unnamed, update.getBillItems().get(0))));
+
+        QueryCounter.reset();
+        Bill updated = billService.updateBill(created.getId(), update);
+        entityManager.flush();
+
+        assertThat(QueryCounter.inserts()).isZero();
+        assertThat(QueryCounter.deletes()).isZero();
+        assertThat(updated.getBillItems())
+                .extracting(BillItem::getId, line -> line.getQuantity().intValue())
+                .containsExactlyInAnyOrder(tuple(first.getId(), 1), tuple(second.getId(), 3));
+    }
+
+    // Detached copy of a bill as a client would send it back (line ids and item ids only)
+    private Bill copyOf(Bill source) {
+        Bill copy = new Bill();
+        copy.setBillDate(source.getBillDate());
+        copy.setDueDate(source.getDueDate());
+        copy.setStatus(source.getStatus());
+        List<BillItem> lines = new ArrayList<>();
+        for (BillItem sourceLine : source.getBillItems()) {
+            BillItem line = new BillItem();
+            line.setId(sourceLine.getId());
+            line.setItemIdFromJson(sourceLine.getItemId());
+            line.setQuantity(sourceLine.getQuantity());
+            line.setUnitPrice(sourceLine.getUnitPrice());
+            line.setTotalPrice(sourceLine.getTotalPrice());
+            lines.add(line);
+        }
+        copy.setBillItems(lines);
+        return copy;
+    }
+
+    // Start from an empty persistence context so item lookups really reach the database
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private BillDto billWithLines(int lines) {
+        return BillingFixture.billDto(customer, 2, items.subList(0, lines).toArray(new Item[0]));
+    }
+}
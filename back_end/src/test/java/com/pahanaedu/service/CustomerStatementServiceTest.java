@@ -0,0 +1,94 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillSummaryDto;
+import com.pahanaedu.dto.CustomerStatementDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerStatementServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2004, 6, 1);
+    private static final LocalDate TO = LocalDate.of(2004, 6, 30);
+
+    @Autowired
+    private CustomerStatementService customerStatementService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Test
+    void aggregatesBalancesAndAgesUnpaidBills() {
+        Customer customer = fixture.customer("STMT", "Statement Customer");
+        Item item = fixture.item("STMT", "Statement Item", new BigDecimal("100.00"), BillingFixture.PLENTY);
+
+        // Before the period: one 121 days past due, one 41 days past due
+        Bill veryLate = createBill(customer, item, LocalDate.of(2004, 2, 1), LocalDate.of(2004, 3, 1));
+        Bill late = createBill(customer, item, LocalDate.of(2004, 5, 10), LocalDate.of(2004, 5, 20));
+        // In the period: one not yet due, one paid
+        Bill current = createBill(customer, item, LocalDate.of(2004, 6, 5), LocalDate.of(2004, 7, 5));
+        Bill paid = createBill(customer, item, LocalDate.of(2004, 6, 10), LocalDate.of(2004, 6, 20));
+        paid.setStatus(Bill.BillStatus.PAID);
+        billService.updateBill(paid.getId(), paid);
+        // After the period
+        createBill(customer, item, LocalDate.of(2004, 7, 5), LocalDate.of(2004, 8, 5));
+
+        CustomerStatementDto statement = customerStatementService.getStatement(customer.getId(), FROM, TO).orElseThrow();
+
+        BigDecimal total = current.getTotalAmount();
+        assertThat(statement.getAccountNumber()).isEqualTo(customer.getAccountNumber());
+        assertThat(statement.getOpeningBalance()).isEqualByComparingTo(veryLate.getTotalAmount().add(late.getTotalAmount()));
+        assertThat(statement.getBillCount()).isEqualTo(2);
+        assertThat(statement.getBilledTotal()).isEqualByComparingTo(total.add(paid.getTotalAmount()));
+        assertThat(statement.getPaidTotal()).isEqualByComparingTo(paid.getTotalAmount());
+        assertThat(statement.getOutstandingTotal()).isEqualByComparingTo(total.multiply(BigDecimal.valueOf(3)));
+        assertThat(statement.getAging().getCurrent()).isEqualByComparingTo(total);
+        assertThat(statement.getAging().getDays1To30()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(statement.getAging().getDays31To60()).isEqualByComparingTo(late.getTotalAmount());
+        assertThat(statement.getAging().getDays61To90()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(statement.getAging().getOver90()).isEqualByComparingTo(veryLate.getTotalAmount());
+        assertThat(statement.getBills()).extracting(BillSummaryDto::getId).containsExactly(current.getId(), paid.getId());
+
+        assertThat(customerStatementService.getStatement(-1L, FROM, TO)).isEmpty();
+    }
+
+    @Test
+    void cachesPerCustomerUntilTheirBillsChange() {
+        Customer customer = fixture.customer("STMT-A", "Statement A");
+        Customer other = fixture.customer("STMT-B", "Statement B");
+        Item item = fixture.item("STMT-C", "Statement Cache Item", new BigDecimal("20.00"), BillingFixture.PLENTY);
+        createBill(customer, item, FROM.plusDays(1), FROM.plusDays(31));
+        createBill(other, item, FROM.plusDays(1), FROM.plusDays(31));
+
+        CustomerStatementDto first = customerStatementService.getStatement(customer.getId(), FROM, TO).orElseThrow();
+        CustomerStatementDto otherFirst = customerStatementService.getStatement(other.getId(), FROM, TO).orElseThrow();
+        assertThat(customerStatementService.getStatement(customer.getId(), FROM, TO)).containsSame(first);
+
+        createBill(customer, item, FROM.plusDays(2), FROM.plusDays(32));
+
+        CustomerStatementDto second = customerStatementService.getStatement(customer.getId(), FROM, TO).orElseThrow();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getBillCount()).isEqualTo(2);
+        // Only the changed customer's statements are dropped
+        assertThat(customerStatementService.getStatement(other.getId(), FROM, TO)).containsSame(otherFirst);
+    }
+
+    private Bill createBill(Customer customer, Item item, LocalDate billDate, LocalDate dueDate) {
+        return billService.createBillFromDTO(BillingFixture.billDto(customer, billDate, dueDate, 1, item));
+    }
+}
@@ -0,0 +1,196 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.SalesTotalsDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DailyBillRollupServiceTest {
+
+    // Dates no other test uses, so the rollup rows compared here belong to this test alone
+    private static final LocalDate FIRST_DAY = LocalDate.of(2002, 5, 30);
+    private static final LocalDate LAST_DAY = FIRST_DAY.plusDays(3);
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Customer customer;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("ROLL", "Rollup Customer");
+        item = fixture.item("ROLL", "Rollup Item", new BigDecimal("10.05"), BillingFixture.PLENTY);
+    }
+
+    @Test
+    void rollupFollowsCreateUpdateAndDeleteAndMatchesRebuild() {
+        List<Bill> bills = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            // Spans a month boundary, so the rebuild touches two partitions
+            bills.add(billService.createBillFromDTO(BillingFixture.billDto(customer,
+                    FIRST_DAY.plusDays(i % 4), FIRST_DAY.plusDays(i % 4 + 30), i + 1, item)));
+        }
+
+        // Status change, date and amount change, delete
+        Bill paid = copyForUpdate(bills.get(0));
+        paid.setStatus(Bill.BillStatus.PAID);
+        billService.updateBill(bills.get(0).getId(), paid);
+
+        Bill moved = copyForUpdate(bills.get(1));
+        moved.setBillDate(LAST_DAY);
+        moved.getBillItems().get(0).setQuantity(new BigDecimal("7"));
+        billService.updateBill(bills.get(1).getId(), moved);
+
+        billService.deleteBill(bills.get(2).getId());
+
+        List<SalesTotalsDto> incremental = totals();
+        assertThat(incremental).usingRecursiveFieldByFieldElementComparator().isEqualTo(aggregateOfBills());
+        assertThat(incremental).anySatisfy(row -> assertThat(row.getStatus()).isEqualTo(Bill.BillStatus.PAID));
+
+        jdbcTemplate.update("DELETE FROM daily_bill_rollup WHERE bill_date BETWEEN ? AND ?",
+                Date.valueOf(FIRST_DAY), Date.valueOf(LAST_DAY));
+        dailyBillRollupService.rebuild();
+
+        assertThat(totals()).usingRecursiveFieldByFieldElementComparator().isEqualTo(incremental);
+    }
+
+    @Test
+    void concurrentUpdatesOfOneBillKeepTheRollupExact() throws Exception {
+        Bill bill = billService.createBillFromDTO(
+                BillingFixture.billDto(customer, FIRST_DAY, FIRST_DAY.plusDays(30), 1, item));
+        int threads = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> updates = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                // Each update moves the bill to another date and status, so a stale snapshot shows up in the totals
+                Bill update = copyForUpdate(bill);
+                update.setBillDate(FIRST_DAY.plusDays(t % 4));
+                update.setStatus(t % 2 == 0 ? Bill.BillStatus.PAID : Bill.BillStatus.PENDING);
+                update.getBillItems().get(0).setQuantity(new BigDecimal(t + 1));
+                updates.add(executor.submit(() -> {
+                    start.await();
+                    return billService.updateBill(bill.getId(), update);
+                }));
+            }
+            start.countDown();
+            for (Future<?> update : updates) {
+                update.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(totals()).usingRecursiveFieldByFieldElementComparator().isEqualTo(aggregateOfBills());
+    }
+
+    @Test
+    void customerBillsStayLockedUntilTheCustomerIsDeleted() throws Exception {
+        Bill bill = billService.createBillFromDTO(
+                BillingFixture.billDto(customer, FIRST_DAY, FIRST_DAY.plusDays(30), 2, item));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch removed = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        try {
+            // Stands in for CustomerService.deleteCustomer; rolled back, so the bill and rollup stay as they were
+            Future<?> deletion = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                dailyBillRollupService.customerBillsRemoved(customer.getId());
+                removed.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                status.setRollbackOnly();
+            }));
+            removed.await();
+
+            // A change to the bill after its totals were taken out would be lost with the cascade delete.
+            // This one changes nothing, so the rollup stays exact whatever happens, but it needs the row lock
+            Future<Integer> change = executor.submit(() ->
+                    jdbcTemplate.update("UPDATE bills SET status = status WHERE id = ?", bill.getId()));
+            assertThatThrownBy(() -> change.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+            finish.countDown();
+            deletion.get();
+            assertThat(change.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<SalesTotalsDto> totals() {
+        return dailyBillRollupService.findTotalsByDateAndStatus(FIRST_DAY, LAST_DAY);
+    }
+
+    private List<SalesTotalsDto> aggregateOfBills() {
+        return jdbcTemplate.query(
+                "SELECT bill_date, status, COUNT(*), SUM(subtotal), SUM(tax_amount), SUM(total_amount) FROM bills " +
+                "WHERE bill_date BETWEEN ? AND ? GROUP BY bill_date, status ORDER BY bill_date, status",
+                (rs, rowNum) -> new SalesTotalsDto(rs.getDate(1).toLocalDate(), Bill.BillStatus.valueOf(rs.getString(2)),
+                        rs.getLong(3), rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getBigDecimal(6)),
+                Date.valueOf(FIRST_DAY), Date.valueOf(LAST_DAY));
+    }
+
+    private Bill copyForUpdate(Bill source) {
+        Bill copy = new Bill();
+        copy.setBillDate(source.getBillDate());
+        copy.setDueDate(source.getDueDate());
+        copy.setStatus(source.getStatus());
+        List<BillItem> lines = new ArrayList<>();
+        for (BillItem sourceLine : source.getBillItems()) {
+            BillItem line = new BillItem();
+            line.setId(sourceLine.getId());
+            line.setItemIdFromJson(item.getId());
+            line.setQuantity(sourceLine.getQuantity());
+            line.setUnitPrice(sourceLine.getUnitPrice());
+            line.setTotalPrice(sourceLine.getTotalPrice());
+            lines.add(line);
+        }
+        copy.setBillItems(lines);
+        return copy;
+    }
+}
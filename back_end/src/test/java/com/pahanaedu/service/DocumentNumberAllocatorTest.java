@@ -0,0 +1,105 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.repository.CustomerRepository;
+import com.pahanaedu.service.DocumentNumberAllocator.DocumentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each allocator built here stands in for one application node sharing the document_sequences table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DocumentNumberAllocatorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void nodesAndThreadsNeverShareANumber() throws Exception {
+        // Small blocks so the nodes keep going back to the table while the threads race
+        List<DocumentNumberAllocator> nodes = List.of(newNode(5), newNode(5));
+        int threads = 8;
+        int numbersPerThread = 250;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        List<Future<Integer>> duplicates = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                DocumentNumberAllocator node = nodes.get(t % nodes.size());
+                duplicates.add(executor.submit(() -> {
+                    start.await();
+                    int clashes = 0;
+                    for (int i = 0; i < numbersPerThread; i++) {
+                        if (!issued.add(node.next(DocumentType.BILL))) {
+                            clashes++;
+                        }
+                    }
+                    return clashes;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : duplicates) {
+                assertThat(result.get()).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(issued).hasSize(threads * numbersPerThread);
+    }
+
+    @Test
+    void firstBlockStartsAfterHighestStoredNumber() {
+        DocumentNumberAllocator node = newNode(10);
+        node.next(DocumentType.CUSTOMER);
+        Long before = jdbcTemplate.queryForObject(
+                "SELECT next_value FROM document_sequences WHERE sequence_name = 'CUSTOMER'", Long.class);
+
+        // A row left behind by an old seed script, below numbers already in use past six digits
+        long highest = Math.max(before, 1_000_000) + 7;
+        customerRepository.save(new Customer(DocumentType.CUSTOMER.format(highest), "Imported Customer",
+                "1 Test Road", "0770000000"));
+        jdbcTemplate.update("UPDATE document_sequences SET next_value = 1 WHERE sequence_name = 'CUSTOMER'");
+        try {
+            assertThat(newNode(10).next(DocumentType.CUSTOMER)).isEqualTo(DocumentType.CUSTOMER.format(highest + 1));
+        } finally {
+            jdbcTemplate.update("UPDATE document_sequences SET next_value = GREATEST(next_value, ?)"
+                    + " WHERE sequence_name = 'CUSTOMER'", before);
+        }
+    }
+
+    private DocumentNumberAllocator newNode(int blockSize) {
+        DocumentNumberAllocator node = new DocumentNumberAllocator();
+        ReflectionTestUtils.setField(node, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(node, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(node, "blockSize", blockSize);
+        node.init();
+        return node;
+    }
+}
@@ -0,0 +1,134 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.exception.GlobalExceptionHandler.IdempotencyKeyReusedException;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.repository.IdempotencyKeyRepository;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotentBillServiceTest {
+
+    @Autowired
+    private IdempotentBillService idempotentBillService;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Customer customer;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("IDEM", "Idempotency Customer");
+        item = fixture.item("IDEM", "Idempotency Item", new BigDecimal("25.00"), BillingFixture.PLENTY);
+    }
+
+    @Test
+    void replayedKeyReturnsOriginalBill() {
+        String key = UUID.randomUUID().toString();
+        long before = billRepository.count();
+
+        Bill first = idempotentBillService.createBill(key, billDto());
+        Bill second = idempotentBillService.createBill(key, billDto());
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(billRepository.count()).isEqualTo(before + 1);
+        assertThat(idempotencyKeyRepository.findById(key)).get()
+                .extracting(mapping -> mapping.getBillId()).isEqualTo(first.getId());
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneBill() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long before = billRepository.count();
+        int requests = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                Callable<Long> call = () -> {
+                    start.await();
+                    return idempotentBillService.createBill(key, billDto()).getId();
+                };
+                results.add(executor.submit(call));
+            }
+            start.countDown();
+
+            Long billId = results.get(0).get();
+            for (Future<Long> result : results) {
+                assertThat(result.get()).isEqualTo(billId);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(billRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void keyReusedForDifferentBodyIsRefused() {
+        String key = UUID.randomUUID().toString();
+        long before = billRepository.count();
+        idempotentBillService.createBill(key, billDto());
+
+        BillDto different = billDto();
+        different.getBillItems().get(0).setQuantity(new BigDecimal("4"));
+
+        assertThatThrownBy(() -> idempotentBillService.createBill(key, different))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(billRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void keysOlderThanTheTtlArePurged() {
+        String stale = UUID.randomUUID().toString();
+        String fresh = UUID.randomUUID().toString();
+        idempotentBillService.createBill(stale, billDto());
+        idempotentBillService.createBill(fresh, billDto());
+        jdbcTemplate.update("UPDATE idempotency_keys SET created_at = DATEADD('HOUR', -25, CURRENT_TIMESTAMP)"
+                + " WHERE idempotency_key = ?", stale);
+
+        assertThat(idempotentBillService.purgeExpiredKeys()).isGreaterThanOrEqualTo(1);
+
+        assertThat(idempotencyKeyRepository.findById(stale)).isEmpty();
+        assertThat(idempotencyKeyRepository.findById(fresh)).isPresent();
+    }
+
+    private BillDto billDto() {
+        return BillingFixture.billDto(customer, 3, item);
+    }
+}
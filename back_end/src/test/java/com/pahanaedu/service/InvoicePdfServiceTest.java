@@ -0,0 +1,131 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.InvoiceDto;
+import com.pahanaedu.dto.InvoiceLineDto;
+import com.pahanaedu.entity.Bill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The disk cache of PAID invoice PDFs, on a temporary directory
+ */
+class InvoicePdfServiceTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private InvoicePdfService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new InvoicePdfService();
+        ReflectionTestUtils.setField(service, "templateResource", new ClassPathResource("templates/invoice.tpl"));
+        ReflectionTestUtils.setField(service, "cacheDirectory", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "cacheMaxSizeMb", 512L);
+        ReflectionTestUtils.setField(service, "cacheMaxAgeDays", 30L);
+        service.init();
+    }
+
+    @Test
+    void newVersionReplacesTheCachedFile() throws IOException {
+        InvoiceDto first = paidInvoice(1L, "10.00");
+        InvoiceDto other = paidInvoice(12L, "10.00");
+        service.writePdf(first, new ByteArrayOutputStream());
+        service.writePdf(other, new ByteArrayOutputStream());
+        assertThat(cachedFiles()).containsExactlyInAnyOrder(fileName(first), fileName(other));
+
+        // Edited after payment, within the same second: only the printed values tell the versions apart
+        InvoiceDto edited = paidInvoice(1L, "12.00");
+        assertThat(edited.getVersion()).isNotEqualTo(first.getVersion());
+        assertThat(paidInvoice(1L, "10.00").getVersion()).isEqualTo(first.getVersion());
+        service.writePdf(edited, new ByteArrayOutputStream());
+
+        assertThat(cachedFiles()).containsExactlyInAnyOrder(fileName(edited), fileName(other));
+    }
+
+    @Test
+    void pruneDropsFilesNotServedWithinMaxAge() throws IOException {
+        service.writePdf(paidInvoice(1L), new ByteArrayOutputStream());
+        service.writePdf(paidInvoice(2L), new ByteArrayOutputStream());
+        lastServed(fileName(paidInvoice(1L)), Instant.now().minus(31, ChronoUnit.DAYS));
+
+        service.pruneCache();
+
+        assertThat(cachedFiles()).containsExactly(fileName(paidInvoice(2L)));
+    }
+
+    @Test
+    void pruneTrimsLeastRecentlyServedFilesToMaxSize() throws IOException {
+        Instant now = Instant.now();
+        for (long billId = 1; billId <= 3; billId++) {
+            service.writePdf(paidInvoice(billId), new ByteArrayOutputStream());
+            lastServed(fileName(paidInvoice(billId)), now.minus(4 - billId, ChronoUnit.DAYS));
+        }
+        // Serving bill 1 from the cache makes it the most recently used
+        service.writePdf(paidInvoice(1L), new ByteArrayOutputStream());
+
+        // Pad the cache so that it is over 1 MB by exactly the size of bill 2's file
+        String bill1 = fileName(paidInvoice(1L));
+        String bill3 = fileName(paidInvoice(3L));
+        long padding = 1024 * 1024 - Files.size(cacheDir.resolve(bill1)) - Files.size(cacheDir.resolve(bill3));
+        Files.write(cacheDir.resolve("bill-9-padding.pdf"), new byte[(int) padding]);
+        ReflectionTestUtils.setField(service, "cacheMaxSizeMb", 1L);
+
+        service.pruneCache();
+
+        assertThat(cachedFiles()).containsExactlyInAnyOrder(bill1, bill3, "bill-9-padding.pdf");
+    }
+
+    private void lastServed(String name, Instant time) throws IOException {
+        Files.setLastModifiedTime(cacheDir.resolve(name), FileTime.from(time));
+    }
+
+    private List<String> cachedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+
+    private static String fileName(InvoiceDto invoice) {
+        return "bill-" + invoice.getBillId() + "-" + invoice.getVersion() + ".pdf";
+    }
+
+    private static InvoiceDto paidInvoice(Long billId) {
+        return paidInvoice(billId, "10.00");
+    }
+
+    private static InvoiceDto paidInvoice(Long billId, String total) {
+        InvoiceDto invoice = new InvoiceDto();
+        invoice.setBillId(billId);
+        invoice.setBillNumber(String.format("BILL%06d", billId));
+        invoice.setBillDate(LocalDate.now());
+        invoice.setDueDate(LocalDate.now().plusDays(30));
+        invoice.setStatus(Bill.BillStatus.PAID);
+        invoice.setCustomerName("Cache Customer");
+        invoice.setAccountNumber("ACC000001");
+        invoice.setCustomerAddress("1 Test Road");
+        invoice.setCustomerTelephone("0770000000");
+        invoice.setSubtotal(new BigDecimal("10.00"));
+        invoice.setTaxAmount(BigDecimal.ZERO);
+        invoice.setTotalAmount(new BigDecimal(total));
+        invoice.getLines().add(new InvoiceLineDto("ITM000001", "Cache Item", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN));
+        return invoice;
+    }
+}
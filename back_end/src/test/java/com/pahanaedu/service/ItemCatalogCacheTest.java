@@ -0,0 +1,115 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.support.BillingFixture;
+import com.pahanaedu.support.QueryCounter;
+import com.pahanaedu.utils.TransactionHooks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemCatalogCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void lookupsAreServedFromTheCacheUntilTheItemChanges() {
+        Item item = itemService.saveItem(BillingFixture.unsavedItem("CAT", "Catalog Item", new BigDecimal("40.00"), 10));
+        String code = item.getItemCode();
+        assertThat(itemService.getItemById(item.getId())).get().extracting(Item::getName).isEqualTo("Catalog Item");
+
+        double hits = hits();
+        QueryCounter.reset();
+        assertThat(itemService.getItemById(item.getId())).isPresent();
+        assertThat(itemService.getItemByCode(code)).get().extracting(Item::getId).isEqualTo(item.getId());
+        assertThat(QueryCounter.selects()).isZero();
+        assertThat(hits()).isGreaterThan(hits);
+
+        // Callers get copies
+        itemService.getItemById(item.getId()).orElseThrow().setName("Changed by caller");
+        assertThat(itemService.getItemById(item.getId()).orElseThrow().getName()).isEqualTo("Catalog Item");
+
+        Item details = new Item(code, "Renamed Item", new BigDecimal("45.00"), 10);
+        itemService.updateItem(item.getId(), details);
+        assertThat(itemService.getItemById(item.getId())).get().extracting(Item::getName).isEqualTo("Renamed Item");
+        assertThat(itemService.getItemByCode(code)).get().extracting(Item::getUnitPrice)
+                .satisfies(price -> assertThat(price).isEqualByComparingTo("45.00"));
+
+        itemService.deleteItem(item.getId());
+        assertThat(itemService.getItemById(item.getId())).isEmpty();
+        assertThat(itemService.getItemByCode(code)).isEmpty();
+    }
+
+    @Test
+    void billsUseCachedItemsAndKeepCachedStockCurrent() {
+        Customer customer = fixture.customer("CAT", "Catalog Customer");
+        Item item = itemService.saveItem(BillingFixture.unsavedItem("CAT", "Catalog Stock Item", new BigDecimal("20.00"), 50));
+        itemService.getItemById(item.getId());
+
+        LocalDate billDate = LocalDate.of(2006, 5, 1);
+        BillDto billDto = BillingFixture.billDto(customer, billDate, billDate.plusDays(30), 3, item);
+        QueryCounter.reset();
+        billService.createBillFromDTO(billDto);
+        // No items were read: the line lookup hit the cache
+        assertThat(QueryCounter.selects()).isZero();
+
+        assertThat(itemService.getItemById(item.getId()).orElseThrow().getStockQuantity()).isEqualTo(47);
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStockQuantity()).isEqualTo(47);
+    }
+
+    @Test
+    void itemReloadedBeforeTheStockHookRunsIsNotChargedTwice() {
+        Item item = itemService.saveItem(BillingFixture.unsavedItem("CAT", "Catalog Reload Item", new BigDecimal("20.00"), 50));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Registered first, so it loads the committed stock into the cache before the cache's own hook runs
+            TransactionHooks.afterCommit(() -> itemService.getItemById(item.getId()));
+            stockService.adjust(Map.of(item.getId(), 3L));
+        });
+
+        assertThat(itemService.getItemById(item.getId()).orElseThrow().getStockQuantity()).isEqualTo(47);
+    }
+
+    private double hits() {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+                .tag("cache", "items-by-id")
+                .tag("result", "hit")
+                .functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+}
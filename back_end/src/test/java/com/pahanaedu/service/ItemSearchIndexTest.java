@@ -0,0 +1,103 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.entity.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Outside a transaction item changes apply straight away
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        add(1L, "ITM000001", "Pocket Dictionary");
+        add(2L, "ITM000002", "Illustrated Atlas of the World");
+        add(3L, "ITM000003", "Atlas");
+        add(4L, "ITM000004", "Dictionary of Science");
+        add(5L, "ITM000005", "Complete Sketchbook A4");
+        add(6L, "ITM000006", "Scientific Calculator");
+    }
+
+    @Test
+    void ranksNamePrefixThenWordPrefixThenSubstring() {
+        assertThat(index.search("atlas", 10)).containsExactly(3L, 2L);
+        assertThat(index.search("dictionary", 10)).containsExactly(4L, 1L);
+        assertThat(index.search("ketch", 10)).containsExactly(5L);
+        // Case and punctuation are ignored; codes are searchable too
+        assertThat(index.search("  SKETCH ", 10)).containsExactly(5L);
+        assertThat(index.search("itm000006", 10)).containsExactly(6L);
+        assertThat(index.search("dictionary", 1)).containsExactly(4L);
+    }
+
+    @Test
+    void laterWordPrefixOutranksAnEarlierSubstring() {
+        add(7L, "ITM000007", "Subclass Class Notes");
+        add(8L, "ITM000008", "Subclassing Guide");
+        add(9L, "ITM000009", "Classroom Chart");
+        assertThat(index.search("class", 10)).containsExactly(9L, 7L, 8L);
+    }
+
+    @Test
+    void twoCharacterQueriesMatchWordPrefixes() {
+        assertThat(index.search("sc", 10)).containsExactly(6L, 4L);
+        assertThat(index.search("a", 10)).isEmpty();
+    }
+
+    @Test
+    void typosFallBackToFuzzyMatches() {
+        // Equal shares of matching trigrams: the shorter text first
+        assertThat(index.search("dictonary", 10)).containsExactly(1L, 4L);
+        assertThat(index.search("sketch book", 10)).containsExactly(5L);
+        assertThat(index.search("calculater", 10)).containsExactly(6L);
+        assertThat(index.search("zzzzzz", 10)).isEmpty();
+    }
+
+    @Test
+    void followsItemChanges() {
+        add(3L, "ITM000003", "Road Map");
+        assertThat(index.search("atlas", 10)).containsExactly(2L);
+        assertThat(index.search("road map", 10)).containsExactly(3L);
+
+        index.itemDeleted(2L);
+        assertThat(index.search("atlas", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void rebuildReadsTheItemsTableAndKeepsFollowingChanges() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:item-search;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, item_code VARCHAR(20), name VARCHAR(100))");
+        for (long id = 1; id <= 50; id++) {
+            jdbcTemplate.update("INSERT INTO items VALUES (?, ?, ?)", id, String.format("ITM%06d", id),
+                    "Student Atlas Volume " + id);
+        }
+        jdbcTemplate.update("INSERT INTO items VALUES (51, 'ITM000051', 'Atlas')");
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+
+        assertThat(index.rebuild()).isEqualTo(51);
+        assertThat(index.search("atlas", 3)).containsExactly(51L, 1L, 2L);
+        assertThat(index.search("volume 42", 10)).containsExactly(42L);
+
+        // Items changed since the rebuild still rank where they belong
+        add(52L, "ITM000052", "Atlas Mini");
+        add(1L, "ITM000001", "Road Map");
+        assertThat(index.search("atlas", 3)).containsExactly(51L, 52L, 2L);
+        assertThat(index.size()).isEqualTo(52);
+    }
+
+    private void add(Long id, String itemCode, String name) {
+        Item item = new Item(itemCode, name, BigDecimal.ONE);
+        item.setId(id);
+        index.itemSaved(item);
+    }
+}
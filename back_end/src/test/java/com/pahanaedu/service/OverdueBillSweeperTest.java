@@ -0,0 +1,102 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.OverdueSweepChunkDto;
+import com.pahanaedu.dto.OverdueSweepResultDto;
+import com.pahanaedu.dto.SalesTotalsDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OverdueBillSweeperTest {
+
+    private static final LocalDate BILL_DATE = LocalDate.of(2003, 7, 1);
+    private static final LocalDate TODAY = LocalDate.of(2003, 9, 1);
+
+    @Autowired
+    private OverdueBillSweeper overdueBillSweeper;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private DailyBillRollupService dailyBillRollupService;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Test
+    void marksPastDuePendingBillsOverdueInChunks() {
+        Customer customer = fixture.customer("DUE", "Overdue Customer");
+        Item item = fixture.item("DUE", "Overdue Item", new BigDecimal("15.00"), BillingFixture.PLENTY);
+
+        List<Long> pastDue = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            pastDue.add(billService.createBillFromDTO(billDto(customer, item, TODAY.minusDays(i + 1))).getId());
+        }
+        Long notYetDue = billService.createBillFromDTO(billDto(customer, item, TODAY)).getId();
+        Bill paid = billService.createBillFromDTO(billDto(customer, item, TODAY.minusDays(10)));
+        paid.setStatus(Bill.BillStatus.PAID);
+        billService.updateBill(paid.getId(), paid);
+
+        int chunkSize = (int) ReflectionTestUtils.getField(overdueBillSweeper, "chunkSize");
+        ReflectionTestUtils.setField(overdueBillSweeper, "chunkSize", 3);
+        OverdueSweepResultDto result;
+        try {
+            result = overdueBillSweeper.sweep(TODAY);
+        } finally {
+            ReflectionTestUtils.setField(overdueBillSweeper, "chunkSize", chunkSize);
+        }
+
+        assertThat(result.getBillsUpdated()).isGreaterThanOrEqualTo(7);
+        // Keyset paging: every chunk but the last is full, however sparse the ids are
+        assertThat(result.getChunks()).isEqualTo((result.getBillsUpdated() + 2) / 3);
+        // Each chunk reports its own count and time, and starts after the previous one ended
+        assertThat(result.getChunkDetails()).hasSize(result.getChunks());
+        assertThat(result.getChunkDetails().subList(0, result.getChunks() - 1))
+                .extracting(OverdueSweepChunkDto::getBillsUpdated).containsOnly(3);
+        assertThat(result.getChunkDetails().stream().mapToLong(OverdueSweepChunkDto::getBillsUpdated).sum())
+                .isEqualTo(result.getBillsUpdated());
+        assertThat(result.getChunkDetails().stream().mapToLong(OverdueSweepChunkDto::getElapsedMs).max().orElseThrow())
+                .isEqualTo(result.getLongestChunkMs());
+        for (int i = 1; i < result.getChunks(); i++) {
+            assertThat(result.getChunkDetails().get(i).getFirstId())
+                    .isEqualTo(result.getChunkDetails().get(i - 1).getLastId() + 1);
+        }
+        assertThat(billRepository.findAllById(pastDue)).allSatisfy(bill ->
+                assertThat(bill.getStatus()).isEqualTo(Bill.BillStatus.OVERDUE));
+        assertThat(billRepository.findById(notYetDue).orElseThrow().getStatus()).isEqualTo(Bill.BillStatus.PENDING);
+        assertThat(billRepository.findById(paid.getId()).orElseThrow().getStatus()).isEqualTo(Bill.BillStatus.PAID);
+
+        // The rollup moved with the bills
+        List<SalesTotalsDto> rollup = dailyBillRollupService.findTotalsByDateAndStatus(BILL_DATE, BILL_DATE);
+        assertThat(rollup).extracting(SalesTotalsDto::getStatus, SalesTotalsDto::getBillCount)
+                .contains(tuple(Bill.BillStatus.OVERDUE, 7L),
+                        tuple(Bill.BillStatus.PENDING, 1L),
+                        tuple(Bill.BillStatus.PAID, 1L));
+    }
+
+    private static BillDto billDto(Customer customer, Item item, LocalDate dueDate) {
+        return BillingFixture.billDto(customer, BILL_DATE, dueDate, 1, item);
+    }
+}
@@ -0,0 +1,80 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.PricingRuleDto;
+import com.pahanaedu.dto.PricingRuleDto.RuleType;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.CustomerRepository;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PricingRuleServiceTest {
+
+    // Rules only cover 2005 so bills created by other tests keep the default rate
+    private static final LocalDate FROM = LocalDate.of(2005, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2005, 12, 31);
+
+    @Autowired
+    private PricingRuleService pricingRuleService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void billsArePricedWithStoredRulesOnceTheyCommit() {
+        Customer customer = BillingFixture.unsavedCustomer("PRC", "Pricing Customer");
+        customer.setUnitsConsumed(new BigDecimal("300"));
+        customer = customerRepository.save(customer);
+        Item item = BillingFixture.unsavedItem("PRC", "Pricing Item", new BigDecimal("100.00"), BillingFixture.PLENTY);
+        item.setCategory("Pricing " + item.getItemCode());
+        item = itemRepository.save(item);
+
+        PricingRuleDto tax = pricingRuleService.addRule(
+                new PricingRuleDto(RuleType.TAX, item.getCategory(), null, new BigDecimal("0.05"), FROM, TO));
+        PricingRuleDto discount = pricingRuleService.addRule(
+                new PricingRuleDto(RuleType.DISCOUNT, null, new BigDecimal("250"), new BigDecimal("0.20"), FROM, TO));
+        try {
+            assertThat(pricingRuleService.getRules()).extracting(PricingRuleDto::getId)
+                    .contains(tax.getId(), discount.getId());
+
+            Bill bill = createBill(customer, item, LocalDate.of(2005, 3, 1));
+            assertThat(bill.getSubtotal()).isEqualByComparingTo("100.00");
+            assertThat(bill.getDiscountAmount()).isEqualByComparingTo("20.00");
+            assertThat(bill.getTaxAmount()).isEqualByComparingTo("4.00");
+            assertThat(bill.getTotalAmount()).isEqualByComparingTo("84.00");
+
+            // Outside the rules' dates the default rate applies
+            Bill later = createBill(customer, item, LocalDate.of(2006, 1, 2));
+            assertThat(later.getDiscountAmount()).isEqualByComparingTo("0");
+            assertThat(later.getTaxAmount()).isEqualByComparingTo("10.00");
+        } finally {
+            pricingRuleService.deleteRule(tax.getId());
+            pricingRuleService.deleteRule(discount.getId());
+        }
+
+        Bill afterDelete = createBill(customer, item, LocalDate.of(2005, 3, 1));
+        assertThat(afterDelete.getTaxAmount()).isEqualByComparingTo("10.00");
+    }
+
+    private Bill createBill(Customer customer, Item item, LocalDate billDate) {
+        return billService.createBillFromDTO(BillingFixture.billDto(customer, billDate, billDate.plusDays(30), 1, item));
+    }
+}
@@ -0,0 +1,104 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.PricingRuleDto;
+import com.pahanaedu.dto.PricingRuleDto.RuleType;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.BillItem;
+import com.pahanaedu.entity.Item;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricingRulesTest {
+
+    private static final BigDecimal DEFAULT_TAX = new BigDecimal("0.10");
+
+    @Test
+    void withoutRulesTaxesAtTheDefaultRate() {
+        PricingRules rules = PricingRules.compile(List.of(), DEFAULT_TAX);
+        Bill bill = bill(LocalDate.of(2024, 3, 1), line("Books", "100.00"), line(null, "23.45"));
+
+        rules.apply(bill, null);
+
+        assertThat(rules.usesUnitsConsumed(bill.getBillDate())).isFalse();
+        assertThat(bill.getSubtotal()).isEqualByComparingTo("123.45");
+        assertThat(bill.getDiscountAmount()).isEqualByComparingTo("0");
+        assertThat(bill.getTaxAmount()).isEqualByComparingTo("12.35");
+        assertThat(bill.getTotalAmount()).isEqualByComparingTo("135.80");
+    }
+
+    @Test
+    void categoryTaxRatesFollowEffectiveDates() {
+        PricingRules rules = PricingRules.compile(List.of(
+                rule(RuleType.TAX, "Stationery", null, "0.05", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30)),
+                rule(RuleType.TAX, null, null, "0.08", LocalDate.of(2024, 5, 1), null)), DEFAULT_TAX);
+
+        Bill march = bill(LocalDate.of(2024, 3, 1), line("Stationery", "100.00"), line("Books", "100.00"));
+        rules.apply(march, null);
+        assertThat(march.getTaxAmount()).isEqualByComparingTo("15.00");
+
+        Bill may = bill(LocalDate.of(2024, 5, 1), line("Stationery", "100.00"), line("Books", "100.00"));
+        rules.apply(may, null);
+        assertThat(may.getTaxAmount()).isEqualByComparingTo("13.00");
+
+        Bill july = bill(LocalDate.of(2024, 7, 1), line("Stationery", "100.00"), line("Books", "100.00"));
+        rules.apply(july, null);
+        assertThat(july.getTaxAmount()).isEqualByComparingTo("16.00");
+
+        Bill earlier = bill(LocalDate.of(2023, 12, 31), line("Stationery", "100.00"));
+        rules.apply(earlier, null);
+        assertThat(earlier.getTaxAmount()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void discountsFollowTheHighestTierReached() {
+        PricingRules rules = PricingRules.compile(List.of(
+                rule(RuleType.DISCOUNT, null, "100", "0.05", null, null),
+                rule(RuleType.DISCOUNT, "Books", "100", "0.10", null, null),
+                rule(RuleType.DISCOUNT, null, "500", "0.15", null, null)), DEFAULT_TAX);
+        LocalDate date = LocalDate.of(2024, 3, 1);
+        assertThat(rules.usesUnitsConsumed(date)).isTrue();
+
+        Bill below = bill(date, line("Books", "100.00"), line("Stationery", "100.00"));
+        rules.apply(below, new BigDecimal("50"));
+        assertThat(below.getDiscountAmount()).isEqualByComparingTo("0");
+
+        Bill silver = bill(date, line("Books", "100.00"), line("Stationery", "100.00"));
+        rules.apply(silver, new BigDecimal("100"));
+        assertThat(silver.getDiscountAmount()).isEqualByComparingTo("15.00");
+        // Tax is charged on the discounted amount
+        assertThat(silver.getTaxAmount()).isEqualByComparingTo("18.50");
+        assertThat(silver.getTotalAmount()).isEqualByComparingTo("203.50");
+
+        // The every-category rule of the higher tier replaces the lower tier's category rule
+        Bill gold = bill(date, line("Books", "100.00"), line("Stationery", "100.00"));
+        rules.apply(gold, new BigDecimal("750"));
+        assertThat(gold.getDiscountAmount()).isEqualByComparingTo("30.00");
+        assertThat(gold.getTotalAmount()).isEqualByComparingTo("187.00");
+    }
+
+    private static PricingRuleDto rule(RuleType type, String category, String minUnits, String rate,
+                                       LocalDate from, LocalDate to) {
+        return new PricingRuleDto(type, category, minUnits != null ? new BigDecimal(minUnits) : null,
+                new BigDecimal(rate), from, to);
+    }
+
+    private static Bill bill(LocalDate billDate, BillItem... lines) {
+        Bill bill = new Bill();
+        bill.setBillDate(billDate);
+        for (BillItem line : lines) {
+            bill.addBillItem(line);
+        }
+        return bill;
+    }
+
+    private static BillItem line(String category, String totalPrice) {
+        Item item = new Item("PR-" + category, "Pricing Item", new BigDecimal(totalPrice));
+        item.setCategory(category);
+        return new BillItem(null, item, BigDecimal.ONE, new BigDecimal(totalPrice));
+    }
+}
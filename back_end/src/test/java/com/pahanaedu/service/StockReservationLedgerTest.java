@@ -0,0 +1,238 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.exception.GlobalExceptionHandler.InsufficientStockException;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationLedgerTest {
+
+    @Autowired
+    private StockReservationLedger stockReservationLedger;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("LDG", "Ledger Customer");
+        ReflectionTestUtils.setField(stockReservationLedger, "enabled", true);
+        assertThat(stockReservationLedger.acquireLease()).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationLedger.flush();
+        ReflectionTestUtils.setField(stockReservationLedger, "enabled", false);
+        stockReservationLedger.reset();
+        stockReservationLedger.releaseLease();
+    }
+
+    @Test
+    void concurrentBillsOnHotItemNeverOversell() throws Exception {
+        int stock = 100;
+        // Below the connection pool size: bill numbers and ids are reserved on a second connection
+        int threads = 8;
+        int billsPerThread = 20;
+        Item hot = fixture.item("LHOT", "Ledger Hot Item", new BigDecimal("5.00"), stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<int[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int created = 0;
+                    int rejected = 0;
+                    for (int i = 0; i < billsPerThread; i++) {
+                        try {
+                            billService.createBillFromDTO(billDto(hot, 1));
+                            created++;
+                        } catch (InsufficientStockException e) {
+                            rejected++;
+                        }
+                    }
+                    return new int[]{created, rejected};
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int rejected = 0;
+            for (Future<int[]> result : results) {
+                created += result.get()[0];
+                rejected += result.get()[1];
+            }
+            assertThat(created).isEqualTo(stock);
+            assertThat(rejected).isEqualTo(threads * billsPerThread - stock);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        stockReservationLedger.flush();
+        assertThat(stockQuantity(hot)).isZero();
+        assertThat(journalRows(hot)).isZero();
+        assertThat(billRepository.findByCustomerId(customer.getId())).hasSize(stock);
+    }
+
+    @Test
+    void rolledBackReservationIsReleased() {
+        Item item = fixture.item("LRB", "Ledger Rollback Item", BigDecimal.ONE, 5);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockReservationLedger.reserve(Map.of(item.getId(), 5L));
+            status.setRollbackOnly();
+        });
+        assertThat(journalRows(item)).isZero();
+
+        // All five units are available again
+        billService.createBillFromDTO(billDto(item, 5));
+        assertThatThrownBy(() -> billService.createBillFromDTO(billDto(item, 1)))
+                .isInstanceOf(InsufficientStockException.class);
+        stockReservationLedger.flush();
+        assertThat(stockQuantity(item)).isZero();
+    }
+
+    @Test
+    void unflushedJournalSurvivesRestart() {
+        Item item = fixture.item("LCR", "Ledger Recovery Item", BigDecimal.ONE, 10);
+        // Held back so the scheduled flusher leaves the journal rows alone
+        synchronized (stockReservationLedger) {
+            billService.createBillFromDTO(billDto(item, 4));
+            assertThat(journalRows(item)).isEqualTo(1);
+            assertThat(stockQuantity(item)).isEqualTo(10);
+
+            // A restarted node has no counters: they are rebuilt from the items row and the journal
+            stockReservationLedger.reset();
+            billService.createBillFromDTO(billDto(item, 6));
+            assertThatThrownBy(() -> billService.createBillFromDTO(billDto(item, 1)))
+                    .isInstanceOf(InsufficientStockException.class);
+        }
+
+        stockReservationLedger.flush();
+        assertThat(stockQuantity(item)).isZero();
+        assertThat(journalRows(item)).isZero();
+    }
+
+    @Test
+    void deletedBillReturnsStockOnceFlushed() {
+        Item item = fixture.item("LDL", "Ledger Delete Item", BigDecimal.ONE, 3);
+        Long billId = billService.createBillFromDTO(billDto(item, 3)).getId();
+        billService.deleteBill(billId);
+
+        billService.createBillFromDTO(billDto(item, 3));
+        stockReservationLedger.flush();
+        assertThat(stockQuantity(item)).isZero();
+    }
+
+    @Test
+    void restockReadBeforeAFlushKeepsTheFlushedUnits() throws Exception {
+        Item item = fixture.item("LRS", "Ledger Restock Item", BigDecimal.ONE, 10);
+        billService.createBillFromDTO(billDto(item, 4));
+
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // The update reads stock 10 here, then the flush takes the bill's 4 units before it writes
+                assertThat(itemRepository.findById(item.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+                try {
+                    assertThat(flusher.submit(stockReservationLedger::flush).get()).isEqualTo(1);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                Item restock = new Item(item.getItemCode(), item.getName(), item.getUnitPrice(), 20);
+                assertThat(itemService.updateItem(item.getId(), restock).getStockQuantity()).isEqualTo(16);
+            });
+        } finally {
+            flusher.shutdownNow();
+        }
+
+        assertThat(stockQuantity(item)).isEqualTo(16);
+        billService.createBillFromDTO(billDto(item, 16));
+        assertThatThrownBy(() -> billService.createBillFromDTO(billDto(item, 1)))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    void secondNodeRefusesToStartUntilTheLeaseGoesStale() {
+        StockReservationLedger secondNode = new StockReservationLedger();
+        ReflectionTestUtils.setField(secondNode, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(secondNode, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(secondNode, "leaseTimeoutSeconds", 30);
+        ReflectionTestUtils.setField(secondNode, "enabled", true);
+
+        assertThatThrownBy(secondNode::init)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("one node only");
+
+        // The first node stops renewing; once the lease is stale the second node takes it over
+        jdbcTemplate.update("UPDATE node_leases SET renewed_at = TIMESTAMPADD(SECOND, -60, CURRENT_TIMESTAMP)");
+        try {
+            secondNode.init();
+            ReflectionTestUtils.setField(stockReservationLedger, "leaseRenewedAt", 0L);
+            assertThat(stockReservationLedger.renewLease()).isFalse();
+        } finally {
+            secondNode.releaseLease();
+        }
+    }
+
+    private int stockQuantity(Item item) {
+        return itemRepository.findById(item.getId()).orElseThrow().getStockQuantity();
+    }
+
+    private long journalRows(Item item) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_journal WHERE item_id = ?", Long.class, item.getId());
+    }
+
+    private BillDto billDto(Item item, int quantity) {
+        return BillingFixture.billDto(customer, quantity, item);
+    }
+}
@@ -0,0 +1,163 @@
+package com.pahanaedu.service;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.entity.Bill;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.exception.GlobalExceptionHandler.InsufficientStockException;
+import com.pahanaedu.repository.BillRepository;
+import com.pahanaedu.repository.ItemRepository;
+import com.pahanaedu.support.BillingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockServiceTest {
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillingFixture fixture;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixture.customer("STK", "Stock Customer");
+    }
+
+    @Test
+    void concurrentBillsOnHotItemNeverOversell() throws Exception {
+        int stock = 100;
+        // Below the connection pool size: bill numbers and ids are reserved on a second connection
+        int threads = 8;
+        int billsPerThread = 20;
+        Item hot = fixture.item("HOT", "Hot Item", new BigDecimal("5.00"), stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<int[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int created = 0;
+                    int rejected = 0;
+                    for (int i = 0; i < billsPerThread; i++) {
+                        try {
+                            billService.createBillFromDTO(billDto(hot, 1));
+                            created++;
+                        } catch (InsufficientStockException e) {
+                            rejected++;
+                        }
+                    }
+                    return new int[]{created, rejected};
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int rejected = 0;
+            for (Future<int[]> result : results) {
+                created += result.get()[0];
+                rejected += result.get()[1];
+            }
+            assertThat(created).isEqualTo(stock);
+            assertThat(rejected).isEqualTo(threads * billsPerThread - stock);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(itemRepository.findById(hot.getId()).orElseThrow().getStockQuantity()).isZero();
+        assertThat(billRepository.findByCustomerId(customer.getId())).hasSize(stock);
+    }
+
+    @Test
+    void billsTakingItemsInOppositeOrderDoNotDeadlock() throws Exception {
+        Item first = fixture.item("ORD-A", "Order Item A", BigDecimal.ONE, 1_000);
+        Item second = fixture.item("ORD-B", "Order Item B", BigDecimal.ONE, 1_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                Item[] lines = t % 2 == 0 ? new Item[] {first, second} : new Item[] {second, first};
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20; i++) {
+                        billService.createBillFromDTO(billDto(2, lines));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(itemRepository.findById(first.getId()).orElseThrow().getStockQuantity()).isEqualTo(1_000 - 320);
+        assertThat(itemRepository.findById(second.getId()).orElseThrow().getStockQuantity()).isEqualTo(1_000 - 320);
+    }
+
+    @Test
+    void shortBillIsRejectedWithoutTouchingStock() {
+        Item plenty = fixture.item("PLN", "Plenty Item", BigDecimal.ONE, 50);
+        Item scarce = fixture.item("SCR", "Scarce Item", BigDecimal.ONE, 2);
+
+        assertThatThrownBy(() -> billService.createBillFromDTO(billDto(3, plenty, scarce)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining(String.valueOf(scarce.getId()));
+
+        assertThat(itemRepository.findById(plenty.getId()).orElseThrow().getStockQuantity()).isEqualTo(50);
+        assertThat(itemRepository.findById(scarce.getId()).orElseThrow().getStockQuantity()).isEqualTo(2);
+        assertThat(billRepository.findByCustomerId(customer.getId())).isEmpty();
+    }
+
+    @Test
+    void updatingAndDeletingBillsReturnStock() {
+        Item item = fixture.item("RET", "Returned Item", BigDecimal.ONE, 10);
+        Bill bill = billService.createBillFromDTO(billDto(item, 4));
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStockQuantity()).isEqualTo(6);
+
+        bill.getBillItems().get(0).setQuantity(new BigDecimal("1"));
+        billService.updateBill(bill.getId(), bill);
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStockQuantity()).isEqualTo(9);
+
+        billService.deleteBill(bill.getId());
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    private BillDto billDto(Item item, int quantity) {
+        return BillingFixture.billDto(customer, quantity, item);
+    }
+
+    private BillDto billDto(int quantity, Item... items) {
+        return BillingFixture.billDto(customer, quantity, items);
+    }
+}
@@ -0,0 +1,82 @@
+package com.pahanaedu.support;
+
+import com.pahanaedu.dto.BillDto;
+import com.pahanaedu.dto.BillItemDto;
+import com.pahanaedu.entity.Customer;
+import com.pahanaedu.entity.Item;
+import com.pahanaedu.repository.CustomerRepository;
+import com.pahanaedu.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Customers, items and bill requests for the integration tests.
+ *
+ * Most service tests are not @Transactional: the code under test has to see committed rows
+ * (after-commit hooks, worker threads, concurrent transactions), so rows from earlier tests stay in
+ * the shared test database. Every account number and item code made here therefore ends in a random
+ * suffix; tests that query by date use their own far-past year instead.
+ */
+@Component
+public class BillingFixture {
+
+    public static final int PLENTY = 1_000_000;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    /**
+     * Eight random characters for codes that must not clash with rows other tests committed
+     */
+    public static String uniqueSuffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * A saved customer whose account number is prefix-suffix
+     */
+    public Customer customer(String prefix, String name) {
+        return customerRepository.save(unsavedCustomer(prefix, name));
+    }
+
+    public static Customer unsavedCustomer(String prefix, String name) {
+        return new Customer(prefix + "-" + uniqueSuffix(), name, "1 Test Road", "0770000000");
+    }
+
+    /**
+     * A saved item whose code is prefix-suffix
+     */
+    public Item item(String prefix, String name, BigDecimal unitPrice, int stock) {
+        return itemRepository.save(unsavedItem(prefix, name, unitPrice, stock));
+    }
+
+    public static Item unsavedItem(String prefix, String name, BigDecimal unitPrice, int stock) {
+        return new Item(prefix + "-" + uniqueSuffix(), name, unitPrice, stock);
+    }
+
+    /**
+     * A bill dated today and due in 30 days, with one line per item of quantity units at the item's price
+     */
+    public static BillDto billDto(Customer customer, int quantity, Item... items) {
+        return billDto(customer, LocalDate.now(), LocalDate.now().plusDays(30), quantity, items);
+    }
+
+    public static BillDto billDto(Customer customer, LocalDate billDate, LocalDate dueDate, int quantity, Item... items) {
+        BillDto billDto = new BillDto(customer.getId(), billDate, dueDate);
+        List<BillItemDto> lines = new ArrayList<>();
+        for (Item item : items) {
+            lines.add(new BillItemDto(item.getId(), BigDecimal.valueOf(quantity), item.getUnitPrice()));
+        }
+        billDto.setBillItems(lines);
+        return billDto;
+    }
+}
@@ -0,0 +1,61 @@
+package com.pahanaedu.utils;
+
+import com.pahanaedu.dto.InvoiceDto;
+import com.pahanaedu.dto.InvoiceLineDto;
+import com.pahanaedu.entity.Bill;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvoiceTemplateTest {
+
+    @Test
+    void rendersInvoiceAcrossPages() throws Exception {
+        InvoiceTemplate template;
+        try (InputStream source = getClass().getResourceAsStream("/templates/invoice.tpl")) {
+            template = InvoiceTemplate.compile(source);
+        }
+
+        InvoiceDto invoice = new InvoiceDto();
+        invoice.setBillNumber("BILL000042");
+        invoice.setBillDate(LocalDate.of(2026, 1, 15));
+        invoice.setDueDate(LocalDate.of(2026, 2, 14));
+        invoice.setStatus(Bill.BillStatus.PAID);
+        invoice.setCustomerName("Nimal Perera නි");
+        invoice.setSubtotal(new BigDecimal("1200"));
+        invoice.setTaxAmount(new BigDecimal("120"));
+        invoice.setTotalAmount(new BigDecimal("1320"));
+        for (int i = 0; i < 120; i++) {
+            invoice.getLines().add(new InvoiceLineDto("ITM" + i, "Exercise book " + i,
+                    BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.render(invoice, out);
+
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            String text = new PDFTextStripper().getText(document);
+            assertThat(document.getNumberOfPages()).isGreaterThan(1);
+            assertThat(text).contains("INVOICE BILL000042", "Exercise book 119", "1320.00", "Nimal Perera ??");
+        }
+    }
+
+    @Test
+    void rejectsRowsOutsideSections() {
+        InputStream source = new ByteArrayInputStream("10 @50 {billNumber}".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> InvoiceTemplate.compile(source))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("outside a section");
+    }
+}
@@ -0,0 +1,66 @@
+package com.pahanaedu.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void convertsAtTheBoundary() {
+        assertThat(Money.of(new BigDecimal("12.34"), RoundingMode.HALF_UP)).isEqualTo(1234);
+        assertThat(Money.of(new BigDecimal("7"), RoundingMode.HALF_UP)).isEqualTo(700);
+        // Quantity x unit price carries four decimals
+        assertThat(Money.of(new BigDecimal("2.50").multiply(new BigDecimal("3.33")), RoundingMode.HALF_UP)).isEqualTo(833);
+        assertThat(Money.rate(new BigDecimal("0.10"), RoundingMode.HALF_UP)).isEqualTo(100_000);
+        assertThat(Money.toBigDecimal(-1205)).isEqualTo(new BigDecimal("-12.05"));
+    }
+
+    @Test
+    void fromBigDecimalMatchesSetScale() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int scale = random.nextInt(8);
+            long unscaled = random.nextLong() % 1_000_000_000_000_000L;
+            BigDecimal amount = BigDecimal.valueOf(unscaled, scale);
+            for (RoundingMode rounding : new RoundingMode[]{RoundingMode.HALF_UP, RoundingMode.HALF_EVEN, RoundingMode.FLOOR}) {
+                BigDecimal expected = amount.setScale(Money.SCALE, rounding);
+                assertThat(Money.toBigDecimal(Money.of(amount, rounding))).as("%s %s", amount, rounding).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void applyRateRoundsLikeBigDecimal() {
+        long[] amounts = {0, 1, 5, 15, 25, 12345, -5, -15, -12345, 99_999_999};
+        long[] rates = {0, 50_000, 100_000, 125_000, 333_333, 1_000_000};
+        for (RoundingMode rounding : new RoundingMode[]{RoundingMode.HALF_UP, RoundingMode.HALF_DOWN,
+                RoundingMode.HALF_EVEN, RoundingMode.UP, RoundingMode.DOWN, RoundingMode.FLOOR, RoundingMode.CEILING}) {
+            for (long amount : amounts) {
+                for (long rate : rates) {
+                    BigDecimal expected = Money.toBigDecimal(amount)
+                            .multiply(BigDecimal.valueOf(rate, Money.RATE_SCALE))
+                            .setScale(Money.SCALE, rounding);
+                    assertThat(Money.toBigDecimal(Money.applyRate(amount, rate, rounding)))
+                            .as("%d x %d %s", amount, rate, rounding)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void overflowAndUnnecessaryRoundingThrow() {
+        assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.applyRate(Long.MAX_VALUE / 2, 1_000_000, RoundingMode.HALF_UP))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.applyRate(15, 100_000, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(Money.applyRate(10, 100_000, RoundingMode.UNNECESSARY)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,40 @@
+-- Tables not mapped to entities (entity tables are created by Hibernate)
+CREATE TABLE IF NOT EXISTS document_sequences (
+    sequence_name VARCHAR(30) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS daily_bill_rollup (
+    bill_date DATE NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    bill_count BIGINT NOT NULL,
+    subtotal DECIMAL(14,2) NOT NULL,
+    tax_amount DECIMAL(14,2) NOT NULL,
+    total_amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (bill_date, status)
+);
+
+CREATE TABLE IF NOT EXISTS stock_journal (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_stock_journal_item ON stock_journal (item_id);
+
+CREATE TABLE IF NOT EXISTS node_leases (
+    lease_name VARCHAR(50) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    renewed_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS pricing_rules (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rule_type VARCHAR(10) NOT NULL,
+    category VARCHAR(50),
+    min_units_consumed DECIMAL(10,2),
+    rate DECIMAL(5,4) NOT NULL,
+    effective_from DATE,
+    effective_to DATE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -273,8 +273,14 @@ const BillDetail = () => {
                   <Typography variant="body1">Subtotal:</Typography>
                   <Typography variant="body1">{formatCurrency(bill.subtotal)}</Typography>
                 </Box>
+                {bill.discountAmount > 0 && (
+                  <Box sx={{ display: 'flex', justifyContent: 'space-between' }}>
+                    <Typography variant="body1">Discount:</Typography>
+                    <Typography variant="body1">-{formatCurrency(bill.discountAmount)}</Typography>
+                  </Box>
+                )}
                 <Box sx={{ display: 'flex', justifyContent: 'space-between' }}>
-                  <Typography variant="body1">Tax (10%):</Typography>
+                  <Typography variant="body1">Tax:</Typography>
                   <Typography variant="body1">{formatCurrency(bill.taxAmount)}</Typography>
                 </Box>
                 <Divider />
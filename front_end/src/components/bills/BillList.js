@@ -9,8 +9,14 @@ import { useNavigate } from 'react-router-dom';
 import { billService } from '../../services/billService';
 import BillForm from './BillForm';
 
+// Bills per request; more are loaded on demand from the page's nextCursor
+const PAGE_SIZE = 50;
+
 const BillList = () => {
   const [bills, setBills] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [hasMore, setHasMore] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [filteredBills, setFilteredBills] = useState([]);
   const [searchTerm, setSearchTerm] = useState('');
   const [deleteDialog, setDeleteDialog] = useState(false);
@@ -27,18 +33,46 @@ const BillList = () => {
   useEffect(() => {
     const filtered = bills.filter(bill =>
       bill.billNumber.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      (bill.customer && bill.customer.name.toLowerCase().includes(searchTerm.toLowerCase())) ||
+      (bill.customerName && bill.customerName.toLowerCase().includes(searchTerm.toLowerCase())) ||
       bill.status.toLowerCase().includes(searchTerm.toLowerCase())
     );
     setFilteredBills(filtered);
   }, [bills, searchTerm]);
 
+  // Reloads from the first page, e.g. after a bill is created, updated or deleted
   const fetchBills = async () => {
     try {
-      const response = await billService.getAllBills();
-      setBills(response.data);
+      const response = await billService.getBillPage(null, PAGE_SIZE);
+      setBills(response.data.bills);
+      setNextCursor(response.data.nextCursor);
+      setHasMore(response.data.hasMore);
+    } catch (error) {
+      showNotification('Error fetching bills', 'error');
+    }
+  };
+
+  const fetchMoreBills = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await billService.getBillPage(nextCursor, PAGE_SIZE);
+      setBills(loaded => [...loaded, ...response.data.bills]);
+      setNextCursor(response.data.nextCursor);
+      setHasMore(response.data.hasMore);
     } catch (error) {
       showNotification('Error fetching bills', 'error');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  // List rows are summaries, so load the full bill (customer and lines) before editing
+  const handleEdit = async (id) => {
+    try {
+      const response = await billService.getBillById(id);
+      setFormBill(response.data);
+      setFormOpen(true);
+    } catch (error) {
+      showNotification('Error loading bill', 'error');
     }
   };
 
@@ -124,7 +158,7 @@ const BillList = () => {
         <TextField
           fullWidth
           variant="outlined"
-          placeholder="Search bills by number, customer, or status..."
+          placeholder="Search loaded bills by number, customer, or status..."
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
           InputProps={{
@@ -150,7 +184,7 @@ const BillList = () => {
             {filteredBills.map((bill) => (
               <TableRow key={bill.id}>
                 <TableCell>{bill.billNumber}</TableCell>
-                <TableCell>{bill.customer?.name || 'Unknown'}</TableCell>
+                <TableCell>{bill.customerName || 'Unknown'}</TableCell>
                 <TableCell>{formatDate(bill.billDate)}</TableCell>
                 <TableCell>{formatDate(bill.dueDate)}</TableCell>
                 <TableCell>{formatCurrency(bill.totalAmount)}</TableCell>
@@ -167,10 +201,7 @@ const BillList = () => {
                   </IconButton>
                   <IconButton
                     color="primary"
-                    onClick={() => {
-                      setFormBill(bill); // pass bill to edit
-                      setFormOpen(true);
-                    }}
+                    onClick={() => handleEdit(bill.id)}
                     title="Edit Bill"
                   >
                     <Edit />
@@ -199,6 +230,14 @@ const BillList = () => {
         </Table>
       </TableContainer>
 
+      {hasMore && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+          <Button variant="outlined" onClick={fetchMoreBills} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load More'}
+          </Button>
+        </Box>
+      )}
+
       {/* Delete Confirmation Dialog */}
       <Dialog open={deleteDialog} onClose={() => setDeleteDialog(false)}>
         <DialogTitle>Confirm Delete</DialogTitle>
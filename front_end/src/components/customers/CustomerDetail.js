@@ -18,13 +18,12 @@ import {
 import { ArrowBack, Edit, Receipt } from '@mui/icons-material';
 import { useNavigate, useParams } from 'react-router-dom';
 import { customerService } from '../../services/customerService';
-import { billService } from '../../services/billService';
 
 const CustomerDetail = () => {
   const navigate = useNavigate();
   const { id } = useParams();
   const [customer, setCustomer] = useState(null);
-  const [customerBills, setCustomerBills] = useState([]);
+  const [statement, setStatement] = useState(null);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
@@ -33,14 +32,14 @@ const CustomerDetail = () => {
 
   const fetchCustomerData = async () => {
     try {
-      const [customerResponse, billsResponse] = await Promise.all([
-        customerService.getAllCustomers,
+      // Totals and aging are computed by the server; the statement defaults to the current month
+      const [customerResponse, statementResponse] = await Promise.all([
         customerService.getCustomerById(id),
-        billService.getBillsByCustomer(id)
+        customerService.getStatement(id)
       ]);
-      
+
       setCustomer(customerResponse.data);
-      setCustomerBills(billsResponse.data);
+      setStatement(statementResponse.data);
     } catch (error) {
       console.error('Error fetching customer data:', error);
     } finally {
@@ -83,9 +82,11 @@ const CustomerDetail = () => {
     );
   }
 
-  const totalBillAmount = customerBills.reduce((sum, bill) => sum + parseFloat(bill.totalAmount), 0);
-  const pendingBills = customerBills.filter(bill => bill.status === 'PENDING').length;
-  const overdueBills = customerBills.filter(bill => bill.status === 'OVERDUE').length;
+  const customerBills = statement?.bills || [];
+  const aging = statement?.aging;
+  const overdueAmount = aging
+    ? parseFloat(aging.days1To30) + parseFloat(aging.days31To60) + parseFloat(aging.days61To90) + parseFloat(aging.over90)
+    : 0;
 
   return (
     <Box sx={{ p: 3 }}>
@@ -194,34 +195,34 @@ const CustomerDetail = () => {
               <Box sx={{ display: 'flex', flexDirection: 'column', gap: 2 }}>
                 <Box>
                   <Typography variant="body2" color="textSecondary">
-                    Total Bills:
+                    Opening Balance:
                   </Typography>
                   <Typography variant="h6">
-                    {customerBills.length}
+                    {formatCurrency(statement?.openingBalance || 0)}
                   </Typography>
                 </Box>
                 <Box>
                   <Typography variant="body2" color="textSecondary">
-                    Total Amount:
+                    Billed This Month ({statement?.billCount || 0} bills):
                   </Typography>
                   <Typography variant="h6" color="primary">
-                    {formatCurrency(totalBillAmount)}
+                    {formatCurrency(statement?.billedTotal || 0)}
                   </Typography>
                 </Box>
                 <Box>
                   <Typography variant="body2" color="textSecondary">
-                    Pending Bills:
+                    Outstanding:
                   </Typography>
                   <Typography variant="h6" color="warning.main">
-                    {pendingBills}
+                    {formatCurrency(statement?.outstandingTotal || 0)}
                   </Typography>
                 </Box>
                 <Box>
                   <Typography variant="body2" color="textSecondary">
-                    Overdue Bills:
+                    Overdue:
                   </Typography>
                   <Typography variant="h6" color="error.main">
-                    {overdueBills}
+                    {formatCurrency(overdueAmount)}
                   </Typography>
                 </Box>
               </Box>
@@ -234,7 +235,7 @@ const CustomerDetail = () => {
           <Card>
             <CardContent>
               <Typography variant="h6" gutterBottom color="primary">
-                Customer Bills
+                Bills This Month
               </Typography>
               <TableContainer component={Paper} variant="outlined">
                 <Table>
@@ -278,7 +279,7 @@ const CustomerDetail = () => {
                       <TableRow>
                         <TableCell colSpan={6} align="center">
                           <Typography variant="body2" color="textSecondary">
-                            No bills found for this customer
+                            No bills this month for this customer
                           </Typography>
                         </TableCell>
                       </TableRow>
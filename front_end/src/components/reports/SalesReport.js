@@ -20,7 +20,7 @@ import { DatePicker } from '@mui/x-date-pickers/DatePicker';
 import { LocalizationProvider } from '@mui/x-date-pickers/LocalizationProvider';
 import { AdapterDateFns } from '@mui/x-date-pickers/AdapterDateFns';
 import { GetApp, Print } from '@mui/icons-material';
-import { billService } from '../../services/billService';
+import { reportService } from '../../services/reportService';
 import { formatCurrency, formatDate } from '../../utils/formatters';
 
 const SalesReport = () => {
@@ -32,29 +32,9 @@ const SalesReport = () => {
   const generateReport = async () => {
     setLoading(true);
     try {
-      const response = await billService.getBillsByDateRange(startDate, endDate);
-      const bills = response.data;
-      
-      // Calculate summary statistics
-      const totalSales = bills.reduce((sum, bill) => sum + parseFloat(bill.totalAmount), 0);
-      const totalBills = bills.length;
-      const paidBills = bills.filter(bill => bill.status === 'PAID');
-      const pendingBills = bills.filter(bill => bill.status === 'PENDING');
-      const overdueBills = bills.filter(bill => bill.status === 'OVERDUE');
-      
-      setReportData({
-        bills,
-        summary: {
-          totalSales,
-          totalBills,
-          paidBills: paidBills.length,
-          pendingBills: pendingBills.length,
-          overdueBills: overdueBills.length,
-          paidAmount: paidBills.reduce((sum, bill) => sum + parseFloat(bill.totalAmount), 0),
-          pendingAmount: pendingBills.reduce((sum, bill) => sum + parseFloat(bill.totalAmount), 0),
-          overdueAmount: overdueBills.reduce((sum, bill) => sum + parseFloat(bill.totalAmount), 0)
-        }
-      });
+      // Totals are aggregated on the server; only summary rows come back
+      const response = await reportService.getSalesReport(startDate, endDate);
+      setReportData(response.data);
     } catch (error) {
       console.error('Error generating report:', error);
     } finally {
@@ -145,7 +125,7 @@ const SalesReport = () => {
                       Total Sales
                     </Typography>
                     <Typography variant="h4">
-                      {formatCurrency(reportData.summary.totalSales)}
+                      {formatCurrency(reportData.totalSales)}
                     </Typography>
                   </CardContent>
                 </Card>
@@ -157,7 +137,7 @@ const SalesReport = () => {
                       Total Bills
                     </Typography>
                     <Typography variant="h4">
-                      {reportData.summary.totalBills}
+                      {reportData.totalBills}
                     </Typography>
                   </CardContent>
                 </Card>
@@ -169,10 +149,10 @@ const SalesReport = () => {
                       Paid Bills
                     </Typography>
                     <Typography variant="h4">
-                      {reportData.summary.paidBills}
+                      {reportData.paidBills}
                     </Typography>
                     <Typography variant="body2" color="textSecondary">
-                      {formatCurrency(reportData.summary.paidAmount)}
+                      {formatCurrency(reportData.paidAmount)}
                     </Typography>
                   </CardContent>
                 </Card>
@@ -184,10 +164,10 @@ const SalesReport = () => {
                       Outstanding
                     </Typography>
                     <Typography variant="h4">
-                      {reportData.summary.pendingBills + reportData.summary.overdueBills}
+                      {reportData.pendingBills + reportData.overdueBills}
                     </Typography>
                     <Typography variant="body2" color="textSecondary">
-                      {formatCurrency(reportData.summary.pendingAmount + reportData.summary.overdueAmount)}
+                      {formatCurrency(reportData.pendingAmount + reportData.overdueAmount)}
                     </Typography>
                   </CardContent>
                 </Card>
@@ -204,30 +184,28 @@ const SalesReport = () => {
                   <Table>
                     <TableHead>
                       <TableRow>
-                        <TableCell>Bill Number</TableCell>
-                        <TableCell>Customer</TableCell>
                         <TableCell>Date</TableCell>
-                        <TableCell align="right">Amount</TableCell>
                         <TableCell>Status</TableCell>
+                        <TableCell align="right">Bills</TableCell>
+                        <TableCell align="right">Amount</TableCell>
                       </TableRow>
                     </TableHead>
                     <TableBody>
-                      {reportData.bills.map((bill) => (
-                        <TableRow key={bill.id}>
-                          <TableCell>{bill.billNumber}</TableCell>
-                          <TableCell>{bill.customer?.name}</TableCell>
-                          <TableCell>{formatDate(bill.billDate)}</TableCell>
-                          <TableCell align="right">{formatCurrency(bill.totalAmount)}</TableCell>
+                      {reportData.daily.map((row) => (
+                        <TableRow key={`${row.billDate}-${row.status}`}>
+                          <TableCell>{formatDate(row.billDate)}</TableCell>
                           <TableCell>
                             <Chip 
-                              label={bill.status} 
+                              label={row.status} 
                               color={
-                                bill.status === 'PAID' ? 'success' :
-                                bill.status === 'PENDING' ? 'warning' : 'error'
+                                row.status === 'PAID' ? 'success' :
+                                row.status === 'PENDING' ? 'warning' : 'error'
                               }
                               size="small"
                             />
                           </TableCell>
+                          <TableCell align="right">{row.billCount}</TableCell>
+                          <TableCell align="right">{formatCurrency(row.totalAmount)}</TableCell>
                         </TableRow>
                       ))}
                     </TableBody>
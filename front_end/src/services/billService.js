@@ -1,7 +1,7 @@
 import api from './api';
 
 export const billService = {
-  getAllBills: () => api.get('/bills'),
+  getBillPage: (cursor, size) => api.get('/bills/page', { params: { cursor, size } }),
   getBillById: (id) => api.get(`/bills/${id}`),
   getBillByNumber: (billNumber) => api.get(`/bills/number/${billNumber}`),
   getBillsByCustomer: (customerId) => api.get(`/bills/customer/${customerId}`),
@@ -8,4 +8,5 @@ export const customerService = {
   createCustomer: (customer) => api.post('/customers', customer),
   updateCustomer: (id, customer) => api.put(`/customers/${id}`, customer),
   deleteCustomer: (id) => api.delete(`/customers/${id}`),
+  getStatement: (id, from, to) => api.get(`/customers/${id}/statement`, { params: { from, to } }),
 };
\ No newline at end of file
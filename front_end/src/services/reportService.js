@@ -0,0 +1,14 @@
+import api from './api';
+
+const toIsoDate = (date) => {
+  const d = new Date(date);
+  const month = String(d.getMonth() + 1).padStart(2, '0');
+  const day = String(d.getDate()).padStart(2, '0');
+  return `${d.getFullYear()}-${month}-${day}`;
+};
+
+export const reportService = {
+  getSalesReport: (startDate, endDate) => api.get('/reports/sales', {
+    params: { startDate: toIsoDate(startDate), endDate: toIsoDate(endDate) }
+  })
+};